@@ -0,0 +1,102 @@
+package com.enterprise.carshare;
+
+import com.enterprise.carshare.domain.Booking;
+import com.enterprise.carshare.domain.BookingUsage;
+import com.enterprise.carshare.domain.User;
+import com.enterprise.carshare.domain.Vehicle;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic domain objects shaped like production rows, shared by the benchmarks.
+ */
+public final class BenchmarkFixtures {
+    
+    public static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 8, 0);
+    
+    private BenchmarkFixtures() {
+    }
+    
+    public static Vehicle vehicle(long id) {
+        return Vehicle.builder()
+                .id(id)
+                .plateNumber("ABC-" + id)
+                .brand("Toyota")
+                .model("Corolla")
+                .year(2022)
+                .color("Silver")
+                .vehicleType(Vehicle.VehicleType.CAR)
+                .fuelType(Vehicle.FuelType.HYBRID)
+                .capacity(5)
+                .vin("JTDBR32E" + String.format("%09d", id))
+                .departmentOwner("Sales")
+                .costCenter("CC-100")
+                .status(Vehicle.VehicleStatus.AVAILABLE)
+                .currentMileage(42_000L + id)
+                .lastServiceDate(LocalDate.of(2023, 11, 1))
+                .nextServiceDue(LocalDate.of(2024, 5, 1))
+                .createdAt(BASE_TIME)
+                .updatedAt(BASE_TIME)
+                .build();
+    }
+    
+    public static User user(long id) {
+        return User.builder()
+                .id(id)
+                .email("user" + id + "@company.com")
+                .password("{bcrypt}$2a$10$abcdefghijklmnopqrstuv")
+                .firstName("First" + id)
+                .lastName("Last" + id)
+                .department("Sales")
+                .costCenter("CC-100")
+                .role(User.Role.ROLE_EMPLOYEE)
+                .enabled(true)
+                .createdAt(BASE_TIME)
+                .updatedAt(BASE_TIME)
+                .build();
+    }
+    
+    public static Booking booking(long id, boolean withUsage) {
+        LocalDateTime start = BASE_TIME.plusHours(id * 3);
+        Booking booking = Booking.builder()
+                .id(id)
+                .vehicle(vehicle(id % 50 + 1))
+                .user(user(id % 200 + 1))
+                .approver(user(1))
+                .startDateTime(start)
+                .endDateTime(start.plusHours(2))
+                .pickupLocation("HQ Garage")
+                .returnLocation("HQ Garage")
+                .purpose("Client visit")
+                .status(withUsage ? Booking.BookingStatus.COMPLETED : Booking.BookingStatus.APPROVED)
+                .createdAt(BASE_TIME)
+                .updatedAt(BASE_TIME)
+                .build();
+        if (withUsage) {
+            booking.setUsage(BookingUsage.builder()
+                    .id(id)
+                    .booking(booking)
+                    .startMileage(42_000L)
+                    .endMileage(42_120L)
+                    .startFuelLevel(new BigDecimal("80.00"))
+                    .endFuelLevel(new BigDecimal("65.00"))
+                    .distanceTravelled(120L)
+                    .checkedOutAt(start)
+                    .checkedInAt(start.plusHours(2))
+                    .build());
+        }
+        return booking;
+    }
+    
+    public static List<Booking> bookings(int count) {
+        List<Booking> bookings = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            bookings.add(booking(i, i % 2 == 0));
+        }
+        return bookings;
+    }
+}
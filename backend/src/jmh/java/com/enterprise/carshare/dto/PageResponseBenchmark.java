@@ -0,0 +1,63 @@
+package com.enterprise.carshare.dto;
+
+import com.enterprise.carshare.BenchmarkFixtures;
+import com.enterprise.carshare.domain.Vehicle;
+import com.enterprise.carshare.mapper.VehicleMapper;
+import com.enterprise.carshare.util.PageCursor;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageResponseBenchmark {
+    
+    @Param({"10", "100", "1000"})
+    private int size;
+    
+    private VehicleMapper vehicleMapper;
+    private Page<Vehicle> page;
+    private List<Vehicle> rows;
+    
+    @Setup
+    public void setUp() {
+        vehicleMapper = Mappers.getMapper(VehicleMapper.class);
+        List<Vehicle> vehicles = new ArrayList<>(size + 1);
+        for (int i = 1; i <= size + 1; i++) {
+            vehicles.add(BenchmarkFixtures.vehicle(i));
+        }
+        rows = vehicles;
+        page = new PageImpl<>(vehicles.subList(0, size), PageRequest.of(3, size), size * 20L);
+    }
+    
+    // Mirrors the hand-built PageResponse in the services
+    @Benchmark
+    public PageResponse<VehicleDto> offsetPage() {
+        List<VehicleDto> content = page.getContent().stream().map(vehicleMapper::toDto).toList();
+        return PageResponse.<VehicleDto>builder()
+                .content(content)
+                .page(page.getNumber())
+                .size(page.getSize())
+                .totalElements(page.getTotalElements())
+                .totalPages(page.getTotalPages())
+                .first(page.isFirst())
+                .last(page.isLast())
+                .build();
+    }
+    
+    @Benchmark
+    public CursorPageResponse<VehicleDto> cursorPage() {
+        return CursorPageResponse.of(rows, size, vehicleMapper::toDto,
+                vehicle -> PageCursor.encode(vehicle.getId(), vehicle.getId()), null);
+    }
+}
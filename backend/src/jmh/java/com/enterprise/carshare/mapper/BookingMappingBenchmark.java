@@ -0,0 +1,37 @@
+package com.enterprise.carshare.mapper;
+
+import com.enterprise.carshare.BenchmarkFixtures;
+import com.enterprise.carshare.domain.Booking;
+import com.enterprise.carshare.dto.BookingDto;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingMappingBenchmark {
+    
+    @Param({"10", "100", "1000"})
+    private int size;
+    
+    private BookingDetailsMapper bookingDetailsMapper;
+    private List<Booking> bookings;
+    
+    @Setup
+    public void setUp() {
+        bookingDetailsMapper = new BookingDetailsMapper(
+                Mappers.getMapper(BookingMapper.class), Mappers.getMapper(VehicleMapper.class));
+        bookings = BenchmarkFixtures.bookings(size);
+    }
+    
+    @Benchmark
+    public List<BookingDto> bookingDetailsToDto() {
+        return bookings.stream().map(bookingDetailsMapper::toDto).toList();
+    }
+}
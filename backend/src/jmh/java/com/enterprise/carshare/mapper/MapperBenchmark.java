@@ -0,0 +1,44 @@
+package com.enterprise.carshare.mapper;
+
+import com.enterprise.carshare.BenchmarkFixtures;
+import com.enterprise.carshare.domain.Booking;
+import com.enterprise.carshare.dto.BookingDto;
+import com.enterprise.carshare.dto.VehicleDto;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+    
+    @Param({"10", "100", "1000"})
+    private int size;
+    
+    private BookingMapper bookingMapper;
+    private VehicleMapper vehicleMapper;
+    private List<Booking> bookings;
+    
+    @Setup
+    public void setUp() {
+        bookingMapper = Mappers.getMapper(BookingMapper.class);
+        vehicleMapper = Mappers.getMapper(VehicleMapper.class);
+        bookings = BenchmarkFixtures.bookings(size);
+    }
+    
+    @Benchmark
+    public List<BookingDto> bookingToDto() {
+        return bookings.stream().map(bookingMapper::toDto).toList();
+    }
+    
+    @Benchmark
+    public List<VehicleDto> vehicleToDto() {
+        return bookings.stream().map(b -> vehicleMapper.toDto(b.getVehicle())).toList();
+    }
+}
@@ -0,0 +1,67 @@
+package com.enterprise.carshare.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overlap checks against one vehicle's active bookings: the interval index snapshot versus a linear
+ * scan of the same intervals, plus the cost of copy-on-write inserts into the snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingOverlapBenchmark {
+    
+    private static final long HOUR = 3_600L;
+    
+    @Param({"10", "100", "1000", "10000"})
+    private int size;
+    
+    private BookingIntervalIndex.VehicleIntervals intervals;
+    private long[] starts;
+    private long[] ends;
+    private long horizon;
+    
+    @Setup
+    public void setUp() {
+        // Back-to-back two hour bookings with a one hour gap between each
+        starts = new long[size];
+        ends = new long[size];
+        intervals = BookingIntervalIndex.VehicleIntervals.EMPTY;
+        for (int i = 0; i < size; i++) {
+            starts[i] = i * 3 * HOUR;
+            ends[i] = starts[i] + 2 * HOUR;
+            intervals = intervals.with(i + 1, starts[i], ends[i]);
+        }
+        horizon = size * 3 * HOUR;
+    }
+    
+    @Benchmark
+    public boolean indexOverlaps() {
+        long start = ThreadLocalRandom.current().nextLong(horizon);
+        return intervals.overlaps(start, start + HOUR);
+    }
+    
+    @Benchmark
+    public boolean linearScanOverlaps() {
+        long start = ThreadLocalRandom.current().nextLong(horizon);
+        long end = start + HOUR;
+        for (int i = 0; i < starts.length; i++) {
+            if (starts[i] < end && ends[i] > start) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    @Benchmark
+    public BookingIntervalIndex.VehicleIntervals insert() {
+        long start = ThreadLocalRandom.current().nextLong(horizon);
+        return intervals.with(-1, start, start + HOUR);
+    }
+}
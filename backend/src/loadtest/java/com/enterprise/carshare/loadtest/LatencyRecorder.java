@@ -0,0 +1,77 @@
+package com.enterprise.carshare.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects raw request latencies per endpoint. Samples are kept in full so percentiles are exact
+ * rather than estimated; a few minutes of load fits comfortably in memory.
+ */
+public class LatencyRecorder {
+    
+    private final Map<String, EndpointSamples> samplesByEndpoint = new ConcurrentHashMap<>();
+    
+    private volatile boolean recording = false;
+    
+    public void startRecording() {
+        recording = true;
+    }
+    
+    public void stopRecording() {
+        recording = false;
+    }
+    
+    public void record(String endpoint, long latencyNanos, boolean success) {
+        if (!recording) {
+            return;
+        }
+        samplesByEndpoint.computeIfAbsent(endpoint, k -> new EndpointSamples()).add(latencyNanos, success);
+    }
+    
+    public List<EndpointSummary> summarize(double elapsedSeconds) {
+        List<EndpointSummary> summaries = new ArrayList<>();
+        samplesByEndpoint.forEach((endpoint, samples) -> summaries.add(samples.summarize(endpoint, elapsedSeconds)));
+        summaries.sort((a, b) -> a.endpoint().compareTo(b.endpoint()));
+        return summaries;
+    }
+    
+    public record EndpointSummary(String endpoint, long requests, long errors, double requestsPerSecond,
+                                  double p50Millis, double p99Millis, double p999Millis, double maxMillis) {
+    }
+    
+    private static final class EndpointSamples {
+        
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+        
+        synchronized void add(long latencyNanos, boolean success) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+            if (!success) {
+                errors++;
+            }
+        }
+        
+        synchronized EndpointSummary summarize(String endpoint, double elapsedSeconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return new EndpointSummary(endpoint, count, errors, count / elapsedSeconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                    count > 0 ? sorted[count - 1] / 1_000_000.0 : 0);
+        }
+        
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.enterprise.carshare.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Thin JSON client over the REST API that times every call into a {@link LatencyRecorder} under a
+ * stable endpoint name, so /bookings/17/approve and /bookings/42/approve are reported together.
+ */
+public class LoadTestClient {
+    
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final LatencyRecorder recorder;
+    private final String baseUrl;
+    
+    public LoadTestClient(String baseUrl, ObjectMapper objectMapper, LatencyRecorder recorder) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.objectMapper = objectMapper;
+        this.recorder = recorder;
+        this.baseUrl = baseUrl;
+    }
+    
+    public JsonNode get(String endpoint, String path, String token) {
+        return send(endpoint, request(path, token).GET().build());
+    }
+    
+    public JsonNode post(String endpoint, String path, String token, Object body) {
+        if (body == null) {
+            return send(endpoint, request(path, token).POST(HttpRequest.BodyPublishers.noBody()).build());
+        }
+        return send(endpoint, request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(toJson(body)))
+                .build());
+    }
+    
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+    
+    // Returns the parsed body of a 2xx response, or null for anything else (counted as an error)
+    private JsonNode send(String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            boolean success = response.statusCode() / 100 == 2;
+            recorder.record(endpoint, System.nanoTime() - start, success);
+            if (!success) {
+                return null;
+            }
+            return response.body().isEmpty() ? objectMapper.createObjectNode() : objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            recorder.record(endpoint, System.nanoTime() - start, false);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+    
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot serialize request body", e);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.enterprise.carshare.loadtest;
+
+import com.enterprise.carshare.EnterpriseCarShareApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boots the application against an embedded Postgres (or a local one given with --db-url), applies
+ * the Flyway migrations, and drives virtual users through the booking lifecycle. Prints p50, p99 and
+ * p999 latency and throughput per endpoint, and writes the same figures as JSON.
+ *
+ * <pre>
+ * mvn -Pload-test compile exec:exec -Dloadtest.args="--users=100 --duration=120"
+ * </pre>
+ *
+ * Options: --users (50), --warmup seconds (15), --duration seconds (60), --relogin-every iterations (20),
+ * --report-every iterations (10), --scenario lifecycle|create (lifecycle), --output (target/loadtest-result.json),
+ * --db-url, --db-username, --db-password. Any other option with a dot in its name is passed to the application
+ * as a property, e.g. --spring.threads.virtual.enabled=true.
+ */
+public class LoadTestRunner {
+    
+    private static final String PASSWORD = "loadtest-password";
+    
+    private final LoadTestClient client;
+    private final Map<String, String> options;
+    private final int users;
+    private final String scenario;
+    private final LocalDateTime slotBase;
+    private String adminToken;
+    
+    LoadTestRunner(LoadTestClient client, Map<String, String> options) {
+        this.client = client;
+        this.options = options;
+        this.users = intOption("users", 50);
+        this.scenario = options.getOrDefault("scenario", "lifecycle");
+        // Every (user, iteration) pair gets its own three hour slot, so lifecycles never conflict
+        this.slotBase = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        
+        EmbeddedPostgres postgres = null;
+        String jdbcUrl = options.get("db-url");
+        if (jdbcUrl == null) {
+            postgres = EmbeddedPostgres.builder().start();
+            jdbcUrl = postgres.getJdbcUrl("postgres", "postgres");
+        }
+        
+        List<String> properties = new ArrayList<>(List.of(
+                "spring.datasource.url=" + jdbcUrl,
+                "spring.datasource.username=" + options.getOrDefault("db-username", "postgres"),
+                "spring.datasource.password=" + options.getOrDefault("db-password", ""),
+                "server.port=0",
+                "logging.level.com.enterprise.carshare=WARN",
+                "logging.level.org.springframework.security=WARN"));
+        options.forEach((name, value) -> {
+            if (name.contains(".")) {
+                properties.add(name + "=" + value);
+            }
+        });
+        
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(EnterpriseCarShareApplication.class)
+                .properties(properties.toArray(String[]::new))
+                .run();
+        
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            ObjectMapper objectMapper = new ObjectMapper()
+                    .findAndRegisterModules()
+                    .enable(SerializationFeature.INDENT_OUTPUT);
+            LatencyRecorder recorder = new LatencyRecorder();
+            LoadTestClient client = new LoadTestClient("http://localhost:" + port + "/api", objectMapper, recorder);
+            
+            LoadTestRunner runner = new LoadTestRunner(client, options);
+            List<long[]> fleet = runner.setUp(context.getBean(JdbcTemplate.class));
+            double measuredSeconds = runner.run(fleet, recorder);
+            
+            List<LatencyRecorder.EndpointSummary> summaries = recorder.summarize(measuredSeconds);
+            printSummary(summaries, runner.users, measuredSeconds);
+            File output = new File(options.getOrDefault("output", "target/loadtest-result.json"));
+            objectMapper.writeValue(output, Map.of(
+                    "scenario", runner.scenario,
+                    "users", runner.users,
+                    "measuredSeconds", measuredSeconds,
+                    "endpoints", summaries));
+            System.out.println("Results written to " + output.getAbsolutePath());
+        } finally {
+            context.close();
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+    }
+    
+    // Creates an admin, one vehicle per virtual user and the employee accounts; returns (vehicleId, mileage) pairs
+    List<long[]> setUp(JdbcTemplate jdbcTemplate) {
+        String adminEmail = "loadtest-admin@company.com";
+        register(adminEmail);
+        jdbcTemplate.update("UPDATE users SET role = 'ROLE_ADMIN' WHERE email = ?", adminEmail);
+        adminToken = login(adminEmail);
+        
+        List<long[]> fleet = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            Map<String, Object> vehicle = new HashMap<>();
+            vehicle.put("plateNumber", String.format("LT-%05d", i));
+            vehicle.put("brand", "Toyota");
+            vehicle.put("model", "Corolla");
+            vehicle.put("year", 2023);
+            vehicle.put("vehicleType", "CAR");
+            vehicle.put("fuelType", "HYBRID");
+            vehicle.put("capacity", 5);
+            vehicle.put("vin", String.format("LOADTEST%09d", i));
+            vehicle.put("departmentOwner", "Sales");
+            JsonNode created = client.post("POST /vehicles", "/vehicles", adminToken, vehicle);
+            if (created == null) {
+                throw new IllegalStateException("Could not create load test vehicle " + i);
+            }
+            fleet.add(new long[] {created.get("id").asLong(), 10_000L});
+            register(userEmail(i));
+        }
+        return fleet;
+    }
+    
+    double run(List<long[]> fleet, LatencyRecorder recorder) throws InterruptedException {
+        int warmupSeconds = intOption("warmup", 15);
+        int durationSeconds = intOption("duration", 60);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds + durationSeconds);
+        
+        // Virtual users are cheap on virtual threads, so large --users values do not need a big pool
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        for (int i = 0; i < users; i++) {
+            int index = i;
+            executor.submit(() -> runVirtualUser(index, fleet.get(index), deadline));
+        }
+        
+        System.out.printf("Warming up %d virtual users for %ds%n", users, warmupSeconds);
+        Thread.sleep(TimeUnit.SECONDS.toMillis(warmupSeconds));
+        recorder.startRecording();
+        long measureStart = System.nanoTime();
+        System.out.printf("Measuring for %ds%n", durationSeconds);
+        
+        executor.shutdown();
+        executor.awaitTermination(durationSeconds + 60L, TimeUnit.SECONDS);
+        recorder.stopRecording();
+        return (System.nanoTime() - measureStart) / 1_000_000_000.0;
+    }
+    
+    private void runVirtualUser(int index, long[] vehicle, long deadline) {
+        int reloginEvery = intOption("relogin-every", 20);
+        int reportEvery = intOption("report-every", 10);
+        long vehicleId = vehicle[0];
+        String token = login(userEmail(index));
+        
+        for (long iteration = 0; System.nanoTime() < deadline; iteration++) {
+            LocalDateTime start = slotBase.plusHours(3 * (iteration * users + index));
+            LocalDateTime end = start.plusHours(2);
+            
+            // Booking creation only: pending bookings leave the vehicle available for the next one
+            if ("create".equals(scenario)) {
+                client.post("POST /bookings", "/bookings", token, bookingRequest(vehicleId, start, end));
+                continue;
+            }
+            
+            if (iteration > 0 && iteration % reloginEvery == 0) {
+                token = login(userEmail(index));
+            }
+            
+            client.get("GET /vehicles", "/vehicles?page=0&size=20", token);
+            client.get("GET /vehicles/available", "/vehicles/available?page=0&size=20&from=" + start + "&to=" + end, token);
+            
+            JsonNode booking = client.post("POST /bookings", "/bookings", token, bookingRequest(vehicleId, start, end));
+            
+            if (booking != null) {
+                long bookingId = booking.get("id").asLong();
+                JsonNode approved = client.post("POST /bookings/{id}/approve",
+                        "/bookings/" + bookingId + "/approve", adminToken, null);
+                if (approved != null) {
+                    completeTrip(bookingId, vehicle, token);
+                }
+            }
+            
+            client.get("GET /bookings/my-bookings", "/bookings/my-bookings?page=0&size=10", token);
+            if (iteration % reportEvery == 0) {
+                LocalDate today = LocalDate.now();
+                client.get("GET /reports/usage", "/reports/usage?startDate=" + today.minusDays(30)
+                        + "&endDate=" + today.plusYears(1), adminToken);
+            }
+        }
+    }
+    
+    private Map<String, Object> bookingRequest(long vehicleId, LocalDateTime start, LocalDateTime end) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("vehicleId", vehicleId);
+        request.put("startDateTime", start.toString());
+        request.put("endDateTime", end.toString());
+        request.put("pickupLocation", "HQ Garage");
+        request.put("returnLocation", "HQ Garage");
+        request.put("purpose", "Load test");
+        return request;
+    }
+    
+    private void completeTrip(long bookingId, long[] vehicle, String token) {
+        long startMileage = vehicle[1];
+        long endMileage = startMileage + 25;
+        
+        Map<String, Object> checkout = new HashMap<>();
+        checkout.put("startMileage", startMileage);
+        checkout.put("startFuelLevel", 80);
+        if (client.post("POST /bookings/{id}/checkout", "/bookings/" + bookingId + "/checkout", token, checkout) == null) {
+            return;
+        }
+        
+        Map<String, Object> checkin = new HashMap<>();
+        checkin.put("endMileage", endMileage);
+        checkin.put("endFuelLevel", 70);
+        checkin.put("damageReported", false);
+        if (client.post("POST /bookings/{id}/checkin", "/bookings/" + bookingId + "/checkin", token, checkin) != null) {
+            vehicle[1] = endMileage;
+        }
+    }
+    
+    private void register(String email) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("email", email);
+        request.put("password", PASSWORD);
+        request.put("firstName", "Load");
+        request.put("lastName", "Test");
+        request.put("department", "Sales");
+        if (client.post("POST /auth/register", "/auth/register", null, request) == null) {
+            throw new IllegalStateException("Could not register " + email);
+        }
+    }
+    
+    private String login(String email) {
+        JsonNode response = client.post("POST /auth/login", "/auth/login", null,
+                Map.of("email", email, "password", PASSWORD));
+        if (response == null) {
+            throw new IllegalStateException("Could not log in as " + email);
+        }
+        return response.get("token").asText();
+    }
+    
+    private static String userEmail(int index) {
+        return "loadtest-user-" + index + "@company.com";
+    }
+    
+    private int intOption(String name, int defaultValue) {
+        String value = options.get(name);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+    
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+    
+    private static void printSummary(List<LatencyRecorder.EndpointSummary> summaries, int users, double seconds) {
+        System.out.printf("%n%d virtual users, %.1fs measured%n", users, seconds);
+        System.out.printf("%-32s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (LatencyRecorder.EndpointSummary s : summaries) {
+            System.out.printf("%-32s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    s.endpoint(), s.requests(), s.errors(), s.requestsPerSecond(),
+                    s.p50Millis(), s.p99Millis(), s.p999Millis(), s.maxMillis());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.enterprise.carshare.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.bulkhead.enabled", havingValue = "true")
+public class DataSourceBulkheadConfig {
+    
+    // Static so the post-processor is registered before the DataSource is created
+    @Bean
+    public static BeanPostProcessor bulkheadDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof BulkheadDataSource) {
+                    return bean;
+                }
+                // Default to one permit per pooled connection so waiting happens here, not in Hikari
+                int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+                int permits = environment.getProperty("app.datasource.bulkhead.permits", Integer.class, poolSize);
+                long acquireTimeoutMs = environment.getProperty(
+                        "app.datasource.bulkhead.acquire-timeout-ms", Long.class, 60_000L);
+                return new BulkheadDataSource(dataSource, permits, acquireTimeoutMs);
+            }
+        };
+    }
+    
+    @Bean
+    public MeterBinder bulkheadDataSourceMetrics(DataSource dataSource) throws SQLException {
+        BulkheadDataSource bulkhead = dataSource.unwrap(BulkheadDataSource.class);
+        return registry -> {
+            Gauge.builder("carshare.datasource.bulkhead.available", bulkhead, BulkheadDataSource::getAvailablePermits)
+                    .description("Connection permits currently free")
+                    .register(registry);
+            Gauge.builder("carshare.datasource.bulkhead.waiting", bulkhead, BulkheadDataSource::getWaitingThreads)
+                    .description("Threads queued for a connection permit")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package com.enterprise.carshare.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+
+@Configuration
+public class PasswordEncoderConfig {
+    
+    @Value("${app.auth.bcrypt-strength:10}")
+    private int bcryptStrength;
+    
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        // New hashes are stored as {bcrypt}...; unprefixed legacy hashes still verify as BCrypt and
+        // get upgraded on the next successful login, as do hashes below the configured strength
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+}
@@ -0,0 +1,26 @@
+package com.enterprise.carshare.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread. Registered as the session
+ * factory's statement inspector; {@link SqlStatementCountFilter} reads and resets it per request.
+ */
+public class SqlStatementCounter implements StatementInspector {
+    
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+    
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+    
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+    
+    public static int current() {
+        return COUNT.get()[0];
+    }
+}
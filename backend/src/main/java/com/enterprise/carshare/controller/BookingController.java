@@ -2,17 +2,20 @@ package com.enterprise.carshare.controller;
 
 import com.enterprise.carshare.domain.Booking;
 import com.enterprise.carshare.dto.*;
+import com.enterprise.carshare.security.JwtPrincipal;
 import com.enterprise.carshare.service.BookingService;
-import com.enterprise.carshare.util.JwtUtil;
+import com.enterprise.carshare.util.ETags;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/bookings")
@@ -22,36 +25,54 @@ import org.springframework.web.bind.annotation.*;
 public class BookingController {
     
     private final BookingService bookingService;
-    private final JwtUtil jwtUtil;
-    
-    private Long getUserIdFromRequest(HttpServletRequest request) {
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            return jwtUtil.extractUserId(token);
-        }
-        throw new RuntimeException("JWT token not found");
-    }
     
     @PostMapping
     @Operation(summary = "Create a new booking")
     public ResponseEntity<BookingDto> createBooking(
             @Valid @RequestBody BookingCreateRequest request,
-            HttpServletRequest httpRequest) {
-        Long userId = getUserIdFromRequest(httpRequest);
+            @AuthenticationPrincipal JwtPrincipal principal) {
+        Long userId = principal.getUserId();
         BookingDto booking = bookingService.createBooking(userId, request);
         return ResponseEntity.ok(booking);
     }
     
+    @PostMapping("/batch")
+    @Operation(summary = "Create bookings for a list of slots or a recurrence rule")
+    public ResponseEntity<BookingBatchResponse> createBookings(
+            @Valid @RequestBody BookingBatchRequest request,
+            @AuthenticationPrincipal JwtPrincipal principal) {
+        Long userId = principal.getUserId();
+        BookingBatchResponse response = bookingService.createBookings(userId, request);
+        HttpStatus status = response.getFailed() > 0 && response.getCreated() == 0
+                ? HttpStatus.CONFLICT
+                : HttpStatus.OK;
+        return ResponseEntity.status(status).body(response);
+    }
+    
     @GetMapping("/my-bookings")
     @Operation(summary = "Get current user's bookings")
     public ResponseEntity<PageResponse<BookingDto>> getMyBookings(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            HttpServletRequest httpRequest) {
-        Long userId = getUserIdFromRequest(httpRequest);
-        PageResponse<BookingDto> bookings = bookingService.getUserBookings(userId, page, size);
-        return ResponseEntity.ok(bookings);
+            @AuthenticationPrincipal JwtPrincipal principal,
+            WebRequest webRequest) {
+        Long userId = principal.getUserId();
+        String etag = bookingService.getUserBookingsETag(userId);
+        return ETags.conditional(webRequest, etag, () -> bookingService.getUserBookings(userId, page, size));
+    }
+    
+    @GetMapping(value = "/my-bookings", params = "limit")
+    @Operation(summary = "Get current user's bookings with cursor pagination")
+    public ResponseEntity<CursorPageResponse<BookingDto>> getMyBookingsAfter(
+            @RequestParam(required = false) String after,
+            @RequestParam int limit,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @AuthenticationPrincipal JwtPrincipal principal,
+            WebRequest webRequest) {
+        Long userId = principal.getUserId();
+        String etag = bookingService.getUserBookingsETag(userId);
+        return ETags.conditional(webRequest, etag,
+                () -> bookingService.getUserBookingsAfter(userId, after, limit, includeTotal));
     }
     
     @GetMapping
@@ -65,11 +86,23 @@ public class BookingController {
         return ResponseEntity.ok(bookings);
     }
     
+    @GetMapping(params = "limit")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('APPROVER')")
+    @Operation(summary = "Get all bookings with cursor pagination (Admin/Approver only)")
+    public ResponseEntity<CursorPageResponse<BookingDto>> getAllBookingsAfter(
+            @RequestParam(required = false) String after,
+            @RequestParam int limit,
+            @RequestParam(required = false) Booking.BookingStatus status,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        CursorPageResponse<BookingDto> bookings = bookingService.getAllBookingsAfter(after, limit, status, includeTotal);
+        return ResponseEntity.ok(bookings);
+    }
+    
     @GetMapping("/{id}")
     @Operation(summary = "Get booking by ID")
-    public ResponseEntity<BookingDto> getBookingById(@PathVariable Long id) {
-        BookingDto booking = bookingService.getBookingById(id);
-        return ResponseEntity.ok(booking);
+    public ResponseEntity<BookingDto> getBookingById(@PathVariable Long id, WebRequest webRequest) {
+        String etag = bookingService.getBookingETag(id);
+        return ETags.conditional(webRequest, etag, () -> bookingService.getBookingById(id));
     }
     
     @PostMapping("/{id}/approve")
@@ -77,8 +110,8 @@ public class BookingController {
     @Operation(summary = "Approve a booking")
     public ResponseEntity<BookingDto> approveBooking(
             @PathVariable Long id,
-            HttpServletRequest httpRequest) {
-        Long approverId = getUserIdFromRequest(httpRequest);
+            @AuthenticationPrincipal JwtPrincipal principal) {
+        Long approverId = principal.getUserId();
         BookingDto booking = bookingService.approveBooking(id, approverId);
         return ResponseEntity.ok(booking);
     }
@@ -88,18 +121,32 @@ public class BookingController {
     @Operation(summary = "Reject a booking")
     public ResponseEntity<BookingDto> rejectBooking(
             @PathVariable Long id,
-            HttpServletRequest httpRequest) {
-        Long approverId = getUserIdFromRequest(httpRequest);
+            @AuthenticationPrincipal JwtPrincipal principal) {
+        Long approverId = principal.getUserId();
         BookingDto booking = bookingService.rejectBooking(id, approverId);
         return ResponseEntity.ok(booking);
     }
     
+    @PostMapping("/approvals")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('APPROVER')")
+    @Operation(summary = "Approve or reject a list of pending bookings")
+    public ResponseEntity<BookingApprovalResponse> decideBookings(
+            @Valid @RequestBody BookingApprovalRequest request,
+            @AuthenticationPrincipal JwtPrincipal principal) {
+        Long approverId = principal.getUserId();
+        BookingApprovalResponse response = bookingService.decideBookings(approverId, request);
+        HttpStatus status = response.getFailed() > 0 && response.getFailed() == response.getRequested()
+                ? HttpStatus.CONFLICT
+                : HttpStatus.OK;
+        return ResponseEntity.status(status).body(response);
+    }
+    
     @PostMapping("/{id}/cancel")
     @Operation(summary = "Cancel a booking")
     public ResponseEntity<BookingDto> cancelBooking(
             @PathVariable Long id,
-            HttpServletRequest httpRequest) {
-        Long userId = getUserIdFromRequest(httpRequest);
+            @AuthenticationPrincipal JwtPrincipal principal) {
+        Long userId = principal.getUserId();
         BookingDto booking = bookingService.cancelBooking(id, userId);
         return ResponseEntity.ok(booking);
     }
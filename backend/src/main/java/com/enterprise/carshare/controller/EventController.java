@@ -0,0 +1,49 @@
+package com.enterprise.carshare.controller;
+
+import com.enterprise.carshare.dto.StreamTicketResponse;
+import com.enterprise.carshare.security.JwtPrincipal;
+import com.enterprise.carshare.security.StreamTicketCache;
+import com.enterprise.carshare.service.ChangeStreamHub;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+
+@RestController
+@RequestMapping("/events")
+@RequiredArgsConstructor
+@Tag(name = "Events", description = "Live vehicle, booking and maintenance changes")
+@SecurityRequirement(name = "bearerAuth")
+public class EventController {
+    
+    private final ChangeStreamHub changeStreamHub;
+    private final StreamTicketCache streamTicketCache;
+    
+    @PostMapping("/tickets")
+    @Operation(summary = "Issue a short-lived, single-use ticket for opening the event stream from EventSource")
+    public ResponseEntity<StreamTicketResponse> issueTicket(@AuthenticationPrincipal JwtPrincipal principal) {
+        return ResponseEntity.ok(StreamTicketResponse.builder()
+                .ticket(streamTicketCache.issue(principal))
+                .expiresInSeconds(streamTicketCache.getTtl().toSeconds())
+                .build());
+    }
+    
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream state changes as Server-Sent Events, optionally filtered by department or vehicle")
+    public SseEmitter streamEvents(
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) Set<Long> vehicleId) {
+        return changeStreamHub.subscribe(department, vehicleId);
+    }
+}
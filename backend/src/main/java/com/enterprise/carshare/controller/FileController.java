@@ -0,0 +1,212 @@
+package com.enterprise.carshare.controller;
+
+import com.enterprise.carshare.dto.FileUploadResponse;
+import com.enterprise.carshare.service.BlobStorageService;
+import com.enterprise.carshare.service.ThumbnailService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+@RestController
+@RequestMapping("/files")
+@RequiredArgsConstructor
+@Tag(name = "Files", description = "Content-addressed file storage")
+@SecurityRequirement(name = "bearerAuth")
+public class FileController {
+    
+    // Tomcat sends a file straight from the page cache when these request attributes are set
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    
+    private final BlobStorageService blobStorageService;
+    private final ThumbnailService thumbnailService;
+    
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Upload a file, returning its content address")
+    public ResponseEntity<FileUploadResponse> upload(@RequestParam("file") MultipartFile file) throws IOException {
+        BlobStorageService.StoredBlob blob;
+        try (InputStream input = file.getInputStream()) {
+            blob = blobStorageService.store(input);
+        }
+        FileUploadResponse response = FileUploadResponse.builder()
+                .key(blob.key())
+                .url(BlobStorageService.urlOf(blob.key()))
+                .size(blob.size())
+                .contentType(blob.contentType())
+                .deduplicated(blob.deduplicated())
+                .build();
+        return ResponseEntity.status(blob.deduplicated() ? HttpStatus.OK : HttpStatus.CREATED).body(response);
+    }
+    
+    @GetMapping("/{key}")
+    @Operation(summary = "Download a file, with Range and ETag support")
+    public void download(
+            @PathVariable String key,
+            ServletWebRequest webRequest,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        BlobStorageService.BlobInfo blob = blobStorageService.find(key);
+        if (blob == null) {
+            throw new RuntimeException("File not found");
+        }
+        
+        // The key is the content hash, so it is a strong validator and the content never changes
+        String etag = "\"" + blob.key() + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return;
+        }
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable().getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentType(blob.contentType());
+        boolean inline = blob.contentType().startsWith("image/") || blob.contentType().equals("application/pdf");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                (inline ? ContentDisposition.inline() : ContentDisposition.attachment())
+                        .filename(blob.key()).build().toString());
+        
+        writeFile(request, response, blob.path(), blob.size(), etag);
+    }
+    
+    @GetMapping("/{key}/thumbnails/{size}")
+    @Operation(summary = "Download a JPEG thumbnail of an image (small, medium or large)")
+    public void downloadThumbnail(
+            @PathVariable String key,
+            @PathVariable String size,
+            ServletWebRequest webRequest,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        ThumbnailService.ThumbnailSize thumbnailSize = ThumbnailService.ThumbnailSize.fromPathSegment(size);
+        // Thumbnails are derived deterministically from the blob, so the key and size identify the bytes
+        String etag = "\"" + key + "-" + thumbnailSize.pathSegment() + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return;
+        }
+        // Served from a channel opened by the cache rather than handed to sendfile, because cache eviction
+        // may delete the file at any time; an open channel keeps reading it
+        try (FileChannel thumbnail = thumbnailService.openThumbnail(key, thumbnailSize)) {
+            if (thumbnail == null) {
+                throw new RuntimeException("Thumbnail not available");
+            }
+            
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL,
+                    CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable().getHeaderValue());
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            response.setContentType(MediaType.IMAGE_JPEG_VALUE);
+            ByteRange range = writeRangeHeaders(request, response, thumbnail.size(), etag);
+            if (range != null) {
+                transfer(thumbnail, range, response);
+            }
+        }
+    }
+    
+    private static void writeFile(HttpServletRequest request, HttpServletResponse response, Path path, long size,
+                                  String etag) throws IOException {
+        ByteRange range = writeRangeHeaders(request, response, size, etag);
+        if (range == null) {
+            return;
+        }
+        
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toString());
+            request.setAttribute(SENDFILE_START, range.start());
+            request.setAttribute(SENDFILE_END, range.start() + range.length());
+            return;
+        }
+        
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            transfer(channel, range, response);
+        }
+    }
+    
+    // Sets the status and length headers for the requested range, returning the bytes to send or null if
+    // there is no body to write
+    private static ByteRange writeRangeHeaders(HttpServletRequest request, HttpServletResponse response, long size,
+                                               String etag) {
+        long start = 0;
+        long length = size;
+        HttpRange range = singleRange(request, etag);
+        if (range != null) {
+            if (size == 0 || range.getRangeStart(size) >= size) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return null;
+            }
+            start = range.getRangeStart(size);
+            length = range.getRangeEnd(size) - start + 1;
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE,
+                    "bytes " + start + "-" + (start + length - 1) + "/" + size);
+        }
+        
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return null;
+        }
+        return new ByteRange(start, length);
+    }
+    
+    private static void transfer(FileChannel channel, ByteRange range, HttpServletResponse response) throws IOException {
+        WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+        long position = range.start();
+        long remaining = range.length();
+        while (remaining > 0) {
+            long sent = channel.transferTo(position, remaining, out);
+            if (sent <= 0) {
+                break;
+            }
+            position += sent;
+            remaining -= sent;
+        }
+    }
+    
+    // Only a single range is served partially; a multi-range request gets the whole file, which the
+    // spec allows. If-Range with a different validator also falls back to the whole file.
+    private static HttpRange singleRange(HttpServletRequest request, String etag) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag)) {
+            return null;
+        }
+        
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(header);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return ranges.size() == 1 ? ranges.get(0) : null;
+    }
+    
+    private record ByteRange(long start, long length) {
+    }
+}
@@ -1,19 +1,20 @@
 package com.enterprise.carshare.controller;
 
 import com.enterprise.carshare.domain.MaintenanceTask;
+import com.enterprise.carshare.dto.CursorPageResponse;
 import com.enterprise.carshare.dto.MaintenanceTaskCreateRequest;
 import com.enterprise.carshare.dto.MaintenanceTaskDto;
 import com.enterprise.carshare.dto.PageResponse;
+import com.enterprise.carshare.security.JwtPrincipal;
 import com.enterprise.carshare.service.MaintenanceService;
-import com.enterprise.carshare.util.JwtUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -24,24 +25,14 @@ import org.springframework.web.bind.annotation.*;
 public class MaintenanceController {
     
     private final MaintenanceService maintenanceService;
-    private final JwtUtil jwtUtil;
-    
-    private Long getUserIdFromRequest(HttpServletRequest request) {
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            return jwtUtil.extractUserId(token);
-        }
-        throw new RuntimeException("JWT token not found");
-    }
     
     @PostMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('MAINTENANCE')")
     @Operation(summary = "Create a maintenance task")
     public ResponseEntity<MaintenanceTaskDto> createMaintenanceTask(
             @Valid @RequestBody MaintenanceTaskCreateRequest request,
-            HttpServletRequest httpRequest) {
-        Long createdById = getUserIdFromRequest(httpRequest);
+            @AuthenticationPrincipal JwtPrincipal principal) {
+        Long createdById = principal.getUserId();
         MaintenanceTaskDto task = maintenanceService.createMaintenanceTask(createdById, request);
         return ResponseEntity.ok(task);
     }
@@ -55,6 +46,16 @@ public class MaintenanceController {
         return ResponseEntity.ok(tasks);
     }
     
+    @GetMapping(params = "limit")
+    @Operation(summary = "Get all maintenance tasks with cursor pagination")
+    public ResponseEntity<CursorPageResponse<MaintenanceTaskDto>> getAllMaintenanceTasksAfter(
+            @RequestParam(required = false) String after,
+            @RequestParam int limit,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        CursorPageResponse<MaintenanceTaskDto> tasks = maintenanceService.getAllMaintenanceTasksAfter(after, limit, includeTotal);
+        return ResponseEntity.ok(tasks);
+    }
+    
     @GetMapping("/vehicle/{vehicleId}")
     @Operation(summary = "Get maintenance tasks for a vehicle")
     public ResponseEntity<PageResponse<MaintenanceTaskDto>> getMaintenanceTasksByVehicle(
@@ -65,6 +66,18 @@ public class MaintenanceController {
         return ResponseEntity.ok(tasks);
     }
     
+    @GetMapping(value = "/vehicle/{vehicleId}", params = "limit")
+    @Operation(summary = "Get maintenance tasks for a vehicle with cursor pagination")
+    public ResponseEntity<CursorPageResponse<MaintenanceTaskDto>> getMaintenanceTasksByVehicleAfter(
+            @PathVariable Long vehicleId,
+            @RequestParam(required = false) String after,
+            @RequestParam int limit,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        CursorPageResponse<MaintenanceTaskDto> tasks = maintenanceService.getMaintenanceTasksByVehicleAfter(
+                vehicleId, after, limit, includeTotal);
+        return ResponseEntity.ok(tasks);
+    }
+    
     @GetMapping("/{id}")
     @Operation(summary = "Get maintenance task by ID")
     public ResponseEntity<MaintenanceTaskDto> getMaintenanceTaskById(@PathVariable Long id) {
@@ -1,15 +1,21 @@
 package com.enterprise.carshare.controller;
 
 import com.enterprise.carshare.dto.ReportDto;
+import com.enterprise.carshare.dto.UtilizationReportDto;
 import com.enterprise.carshare.service.ReportService;
+import com.enterprise.carshare.service.UtilizationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 
@@ -21,6 +27,7 @@ import java.time.LocalDate;
 public class ReportController {
     
     private final ReportService reportService;
+    private final UtilizationService utilizationService;
     
     @GetMapping("/usage")
     @PreAuthorize("hasRole('ADMIN')")
@@ -31,5 +38,37 @@ public class ReportController {
         ReportDto report = reportService.getUsageReport(startDate, endDate);
         return ResponseEntity.ok(report);
     }
+    
+    @GetMapping("/utilization")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get booked vs. available hours, idle gaps and peak concurrency per vehicle, department or type")
+    public ResponseEntity<UtilizationReportDto> getUtilizationReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "vehicle") String groupBy) {
+        UtilizationReportDto report = utilizationService.getUtilization(from, to, UtilizationService.GroupBy.from(groupBy));
+        return ResponseEntity.ok(report);
+    }
+    
+    @GetMapping("/bookings/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Stream bookings with vehicle, user and usage details for a period as CSV or NDJSON")
+    public ResponseEntity<StreamingResponseBody> exportBookings(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format) {
+        // Validate before streaming starts; once the body is being written the status is already sent
+        ReportService.ExportFormat exportFormat = ReportService.ExportFormat.from(format);
+        if (to.isBefore(from)) {
+            throw new RuntimeException("End date must not be before start date");
+        }
+        
+        StreamingResponseBody body = outputStream -> reportService.exportBookings(from, to, exportFormat, outputStream);
+        String filename = "bookings-" + from + "-" + to + "." + exportFormat.getExtension();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
 }
 
@@ -1,18 +1,31 @@
 package com.enterprise.carshare.controller;
 
 import com.enterprise.carshare.domain.Vehicle;
+import com.enterprise.carshare.dto.CursorPageResponse;
 import com.enterprise.carshare.dto.PageResponse;
 import com.enterprise.carshare.dto.VehicleCreateRequest;
 import com.enterprise.carshare.dto.VehicleDto;
+import com.enterprise.carshare.dto.VehicleImportResponse;
+import com.enterprise.carshare.service.VehicleImportService;
 import com.enterprise.carshare.service.VehicleService;
+import com.enterprise.carshare.util.ETags;
+import com.enterprise.carshare.util.PageCursor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/vehicles")
@@ -22,6 +35,7 @@ import org.springframework.web.bind.annotation.*;
 public class VehicleController {
     
     private final VehicleService vehicleService;
+    private final VehicleImportService vehicleImportService;
     
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -31,11 +45,22 @@ public class VehicleController {
         return ResponseEntity.ok(vehicle);
     }
     
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Import vehicles from a CSV file, reporting failed rows")
+    public ResponseEntity<VehicleImportResponse> importVehicles(@RequestParam("file") MultipartFile file)
+            throws IOException {
+        try (InputStream input = file.getInputStream()) {
+            VehicleImportResponse response = vehicleImportService.importCsv(input);
+            return ResponseEntity.ok(response);
+        }
+    }
+    
     @GetMapping("/{id}")
     @Operation(summary = "Get vehicle by ID")
-    public ResponseEntity<VehicleDto> getVehicleById(@PathVariable Long id) {
-        VehicleDto vehicle = vehicleService.getVehicleById(id);
-        return ResponseEntity.ok(vehicle);
+    public ResponseEntity<VehicleDto> getVehicleById(@PathVariable Long id, WebRequest webRequest) {
+        String etag = vehicleService.getVehicleETag(id);
+        return ETags.conditional(webRequest, etag, () -> vehicleService.getVehicleById(id));
     }
     
     @GetMapping
@@ -44,19 +69,42 @@ public class VehicleController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String direction) {
-        PageResponse<VehicleDto> vehicles = vehicleService.getAllVehicles(page, size, sortBy, direction);
-        return ResponseEntity.ok(vehicles);
+            @RequestParam(defaultValue = "asc") String direction,
+            WebRequest webRequest) {
+        String etag = vehicleService.getVehiclesETag();
+        return ETags.conditional(webRequest, etag,
+                () -> vehicleService.getAllVehicles(page, size, sortBy, direction));
+    }
+    
+    @GetMapping(params = "limit")
+    @Operation(summary = "Get all vehicles with cursor pagination")
+    public ResponseEntity<CursorPageResponse<VehicleDto>> getAllVehiclesAfter(
+            @RequestParam(required = false) String after,
+            @RequestParam int limit,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            WebRequest webRequest) {
+        String etag = vehicleService.getVehiclesETag();
+        return ETags.conditional(webRequest, etag,
+                () -> vehicleService.getAllVehiclesAfter(after, limit, includeTotal));
     }
     
     @GetMapping("/available")
-    @Operation(summary = "Get available vehicles")
+    @Operation(summary = "Get available vehicles, optionally free for a whole time window")
     public ResponseEntity<PageResponse<VehicleDto>> getAvailableVehicles(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) String department,
-            @RequestParam(required = false) Vehicle.VehicleType vehicleType) {
-        PageResponse<VehicleDto> vehicles = vehicleService.getAvailableVehicles(page, size, department, vehicleType);
+            @RequestParam(required = false) Vehicle.VehicleType vehicleType,
+            @RequestParam(required = false) Vehicle.VehicleType type,
+            @RequestParam(required = false) Integer minCapacity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (page < 0 || size < 1 || size > PageCursor.MAX_LIMIT) {
+            throw new RuntimeException("page must not be negative and size must be between 1 and "
+                    + PageCursor.MAX_LIMIT);
+        }
+        PageResponse<VehicleDto> vehicles = vehicleService.getAvailableVehicles(
+                page, size, department, vehicleType != null ? vehicleType : type, minCapacity, from, to);
         return ResponseEntity.ok(vehicles);
     }
     
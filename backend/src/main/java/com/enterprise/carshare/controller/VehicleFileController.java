@@ -0,0 +1,93 @@
+package com.enterprise.carshare.controller;
+
+import com.enterprise.carshare.domain.VehicleDocument;
+import com.enterprise.carshare.domain.VehiclePhoto;
+import com.enterprise.carshare.dto.VehicleDocumentDto;
+import com.enterprise.carshare.dto.VehiclePhotoDto;
+import com.enterprise.carshare.security.JwtPrincipal;
+import com.enterprise.carshare.service.VehicleFileService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+@RestController
+@RequestMapping("/vehicles/{vehicleId}")
+@RequiredArgsConstructor
+@Tag(name = "Vehicle Files", description = "Vehicle photo and document endpoints")
+@SecurityRequirement(name = "bearerAuth")
+public class VehicleFileController {
+    
+    private final VehicleFileService vehicleFileService;
+    
+    @PostMapping(value = "/photos", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MAINTENANCE')")
+    @Operation(summary = "Upload a vehicle photo")
+    public ResponseEntity<VehiclePhotoDto> addPhoto(
+            @PathVariable Long vehicleId,
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) VehiclePhoto.PhotoType photoType,
+            @AuthenticationPrincipal JwtPrincipal principal) throws IOException {
+        try (InputStream input = file.getInputStream()) {
+            VehiclePhotoDto photo = vehicleFileService.addPhoto(vehicleId, principal.getUserId(), photoType, input);
+            return ResponseEntity.ok(photo);
+        }
+    }
+    
+    @GetMapping("/photos")
+    @Operation(summary = "List vehicle photos, newest first")
+    public ResponseEntity<List<VehiclePhotoDto>> getPhotos(@PathVariable Long vehicleId) {
+        List<VehiclePhotoDto> photos = vehicleFileService.getPhotos(vehicleId);
+        return ResponseEntity.ok(photos);
+    }
+    
+    @DeleteMapping("/photos/{photoId}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MAINTENANCE')")
+    @Operation(summary = "Delete a vehicle photo")
+    public ResponseEntity<Void> deletePhoto(@PathVariable Long vehicleId, @PathVariable Long photoId) {
+        vehicleFileService.deletePhoto(vehicleId, photoId);
+        return ResponseEntity.noContent().build();
+    }
+    
+    @PostMapping(value = "/documents", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MAINTENANCE')")
+    @Operation(summary = "Upload a vehicle document")
+    public ResponseEntity<VehicleDocumentDto> addDocument(
+            @PathVariable Long vehicleId,
+            @RequestParam("file") MultipartFile file,
+            @RequestParam VehicleDocument.DocumentType documentType,
+            @AuthenticationPrincipal JwtPrincipal principal) throws IOException {
+        try (InputStream input = file.getInputStream()) {
+            VehicleDocumentDto document = vehicleFileService.addDocument(
+                    vehicleId, principal.getUserId(), documentType, file.getOriginalFilename(), input);
+            return ResponseEntity.ok(document);
+        }
+    }
+    
+    @GetMapping("/documents")
+    @Operation(summary = "List vehicle documents, newest first")
+    public ResponseEntity<List<VehicleDocumentDto>> getDocuments(
+            @PathVariable Long vehicleId,
+            @RequestParam(required = false) VehicleDocument.DocumentType documentType) {
+        List<VehicleDocumentDto> documents = vehicleFileService.getDocuments(vehicleId, documentType);
+        return ResponseEntity.ok(documents);
+    }
+    
+    @DeleteMapping("/documents/{documentId}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MAINTENANCE')")
+    @Operation(summary = "Delete a vehicle document")
+    public ResponseEntity<Void> deleteDocument(@PathVariable Long vehicleId, @PathVariable Long documentId) {
+        vehicleFileService.deleteDocument(vehicleId, documentId);
+        return ResponseEntity.noContent().build();
+    }
+}
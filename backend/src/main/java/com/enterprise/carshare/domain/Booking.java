@@ -13,6 +13,12 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "bookings")
+@NamedEntityGraph(name = "Booking.details", attributeNodes = {
+        @NamedAttributeNode("vehicle"),
+        @NamedAttributeNode("user"),
+        @NamedAttributeNode("approver"),
+        @NamedAttributeNode("usage")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -56,6 +62,10 @@ public class Booking {
     @Builder.Default
     private BookingStatus status = BookingStatus.PENDING;
     
+    // When the booking was found still out after its end time; kept after a late checkin
+    @Column(name = "overdue_at")
+    private LocalDateTime overdueAt;
+    
     @Column(name = "approval_required", nullable = false)
     @Builder.Default
     private Boolean approvalRequired = false;
@@ -72,7 +82,7 @@ public class Booking {
     private BookingUsage usage;
     
     public enum BookingStatus {
-        PENDING, APPROVED, REJECTED, CANCELLED, COMPLETED
+        PENDING, APPROVED, REJECTED, CANCELLED, COMPLETED, EXPIRED
     }
 }
 
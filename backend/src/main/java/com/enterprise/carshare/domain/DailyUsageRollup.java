@@ -0,0 +1,32 @@
+package com.enterprise.carshare.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "daily_usage_rollup")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyUsageRollup {
+    
+    @Id
+    @Column(name = "usage_date")
+    private LocalDate usageDate;
+    
+    @Column(name = "completed_bookings", nullable = false)
+    private Long completedBookings;
+    
+    @Column(name = "total_distance", nullable = false)
+    private Long totalDistance;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -57,6 +57,11 @@ public class MaintenanceTask {
     @Column(name = "workshop_name")
     private String workshopName;
     
+    // Set on tasks raised by the maintenance scheduler
+    @Column(length = 20)
+    @Enumerated(EnumType.STRING)
+    private MaintenanceReason reason;
+    
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -68,5 +73,9 @@ public class MaintenanceTask {
     public enum MaintenanceStatus {
         OPEN, IN_PROGRESS, DONE
     }
+    
+    public enum MaintenanceReason {
+        SERVICE, INSURANCE, REGISTRATION
+    }
 }
 
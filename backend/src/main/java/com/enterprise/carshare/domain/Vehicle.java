@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -19,10 +21,14 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @EntityListeners(AuditingEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "vehicles")
 public class Vehicle {
     
+    // Sequence ids (allocationSize must match the sequence increment) let Hibernate batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vehicles_id_seq")
+    @SequenceGenerator(name = "vehicles_id_seq", sequenceName = "vehicles_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "plate_number", unique = true, nullable = false)
@@ -74,6 +80,9 @@ public class Vehicle {
     @Column(name = "next_service_due")
     private LocalDate nextServiceDue;
     
+    @Column(name = "next_service_mileage")
+    private Long nextServiceMileage;
+    
     @Column(name = "insurance_expiry_date")
     private LocalDate insuranceExpiryDate;
     
@@ -97,7 +106,13 @@ public class Vehicle {
     }
     
     public enum VehicleStatus {
-        AVAILABLE, IN_USE, MAINTENANCE, INACTIVE
+        AVAILABLE, IN_USE, MAINTENANCE, INACTIVE;
+        
+        // IN_USE only says the vehicle is out now, so it can still be booked for later; the same
+        // rule as VehicleRepository.findBookableVehicleIds
+        public boolean isBookable() {
+            return this != MAINTENANCE && this != INACTIVE;
+        }
     }
 }
 
@@ -0,0 +1,15 @@
+package com.enterprise.carshare.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BookingApprovalRequest {
+    
+    @NotEmpty(message = "At least one decision is required")
+    @Valid
+    private List<BookingDecision> decisions;
+}
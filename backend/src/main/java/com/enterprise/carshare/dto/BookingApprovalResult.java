@@ -0,0 +1,21 @@
+package com.enterprise.carshare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingApprovalResult {
+    private Long bookingId;
+    private BookingDecision.Decision decision;
+    private ItemStatus status;
+    private String message;
+    
+    public enum ItemStatus {
+        APPROVED, REJECTED, NOT_FOUND, INVALID, CONFLICT
+    }
+}
@@ -0,0 +1,25 @@
+package com.enterprise.carshare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingBatchItemResult {
+    private int index;
+    private LocalDateTime startDateTime;
+    private LocalDateTime endDateTime;
+    private ItemStatus status;
+    private Long bookingId;
+    private String message;
+    
+    public enum ItemStatus {
+        CREATED, CONFLICT, INVALID, SKIPPED
+    }
+}
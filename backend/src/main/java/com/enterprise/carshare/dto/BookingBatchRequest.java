@@ -0,0 +1,35 @@
+package com.enterprise.carshare.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BookingBatchRequest {
+    
+    @NotNull(message = "Vehicle ID is required")
+    private Long vehicleId;
+    
+    @NotBlank(message = "Pickup location is required")
+    private String pickupLocation;
+    
+    @NotBlank(message = "Return location is required")
+    private String returnLocation;
+    
+    private String purpose;
+    
+    // Either an explicit list of slots or a recurrence rule
+    private List<@NotNull(message = "Slots must not contain null entries") @Valid BookingSlot> slots;
+    
+    @Valid
+    private BookingRecurrence recurrence;
+    
+    private BatchMode mode = BatchMode.ALL_OR_NOTHING;
+    
+    public enum BatchMode {
+        ALL_OR_NOTHING, BEST_EFFORT
+    }
+}
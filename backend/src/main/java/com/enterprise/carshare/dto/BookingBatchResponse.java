@@ -0,0 +1,20 @@
+package com.enterprise.carshare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingBatchResponse {
+    private BookingBatchRequest.BatchMode mode;
+    private int requested;
+    private int created;
+    private int failed;
+    private List<BookingBatchItemResult> results;
+}
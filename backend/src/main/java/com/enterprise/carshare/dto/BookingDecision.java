@@ -0,0 +1,18 @@
+package com.enterprise.carshare.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class BookingDecision {
+    
+    @NotNull(message = "Booking ID is required")
+    private Long bookingId;
+    
+    @NotNull(message = "Decision is required")
+    private Decision decision;
+    
+    public enum Decision {
+        APPROVE, REJECT
+    }
+}
@@ -28,6 +28,7 @@ public class BookingDto {
     private String purpose;
     private Booking.BookingStatus status;
     private Boolean approvalRequired;
+    private LocalDateTime overdueAt;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private BookingUsageDto usage;
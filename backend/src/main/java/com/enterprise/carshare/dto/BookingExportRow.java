@@ -0,0 +1,49 @@
+package com.enterprise.carshare.dto;
+
+import com.enterprise.carshare.domain.Booking;
+import com.enterprise.carshare.domain.Vehicle;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Flat booking row for finance exports; the constructor order is used by the export query
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingExportRow {
+    private Long bookingId;
+    private Booking.BookingStatus status;
+    private LocalDateTime startDateTime;
+    private LocalDateTime endDateTime;
+    private String pickupLocation;
+    private String returnLocation;
+    private String purpose;
+    private LocalDateTime createdAt;
+    private Long vehicleId;
+    private String plateNumber;
+    private String brand;
+    private String model;
+    private Vehicle.VehicleType vehicleType;
+    private String vehicleDepartment;
+    private String vehicleCostCenter;
+    private Long userId;
+    private String userEmail;
+    private String userFirstName;
+    private String userLastName;
+    private String userDepartment;
+    private String userCostCenter;
+    private String approverEmail;
+    private Long startMileage;
+    private Long endMileage;
+    private Long distanceTravelled;
+    private BigDecimal startFuelLevel;
+    private BigDecimal endFuelLevel;
+    private Boolean damageReported;
+    private LocalDateTime checkedOutAt;
+    private LocalDateTime checkedInAt;
+}
@@ -0,0 +1,30 @@
+package com.enterprise.carshare.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+@Data
+public class BookingRecurrence {
+    
+    @NotNull(message = "Recurrence start date is required")
+    private LocalDate startDate;
+    
+    @NotNull(message = "Recurrence end date is required")
+    private LocalDate endDate;
+    
+    @NotEmpty(message = "At least one day of week is required")
+    private Set<DayOfWeek> daysOfWeek;
+    
+    @NotNull(message = "Start time is required")
+    private LocalTime startTime;
+    
+    // An end time at or before the start time ends the booking on the following day
+    @NotNull(message = "End time is required")
+    private LocalTime endTime;
+}
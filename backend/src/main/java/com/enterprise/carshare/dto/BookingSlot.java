@@ -0,0 +1,20 @@
+package com.enterprise.carshare.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingSlot {
+    
+    @NotNull(message = "Start date time is required")
+    private LocalDateTime startDateTime;
+    
+    @NotNull(message = "End date time is required")
+    private LocalDateTime endDateTime;
+}
@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @Builder
@@ -24,6 +25,8 @@ public class BookingUsageDto {
     private String damageDescription;
     private String[] preTripPhotos;
     private String[] postTripPhotos;
+    private List<PhotoThumbnailsDto> preTripThumbnails;
+    private List<PhotoThumbnailsDto> postTripThumbnails;
     private String checkoutComments;
     private String checkinComments;
     private LocalDateTime checkedOutAt;
@@ -0,0 +1,22 @@
+package com.enterprise.carshare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeEventDto {
+    private String type;
+    private String entity;
+    private Long entityId;
+    private Long vehicleId;
+    private String department;
+    private String status;
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,37 @@
+package com.enterprise.carshare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+    private List<T> content;
+    private int limit;
+    private boolean hasNext;
+    private String nextCursor;
+    // Only populated when the client asks for it, since counting defeats the point on large tables
+    private Long totalElements;
+    
+    // rows holds up to limit + 1 entries; the extra row only signals that another page exists
+    public static <E, T> CursorPageResponse<T> of(
+            List<E> rows, int limit, Function<E, T> mapper, Function<E, String> cursorOf, Long totalElements) {
+        boolean hasNext = rows.size() > limit;
+        List<E> page = hasNext ? rows.subList(0, limit) : rows;
+        
+        return CursorPageResponse.<T>builder()
+                .content(page.stream().map(mapper).toList())
+                .limit(limit)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? cursorOf.apply(page.get(page.size() - 1)) : null)
+                .totalElements(totalElements)
+                .build();
+    }
+}
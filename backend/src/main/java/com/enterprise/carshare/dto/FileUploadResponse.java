@@ -0,0 +1,18 @@
+package com.enterprise.carshare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileUploadResponse {
+    private String key;
+    private String url;
+    private long size;
+    private String contentType;
+    private boolean deduplicated;
+}
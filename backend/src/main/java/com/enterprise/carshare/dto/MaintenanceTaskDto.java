@@ -26,6 +26,7 @@ public class MaintenanceTaskDto {
     private LocalDate completedDate;
     private BigDecimal cost;
     private String workshopName;
+    private MaintenanceTask.MaintenanceReason reason;
     private LocalDate createdAt;
     private LocalDate updatedAt;
 }
@@ -0,0 +1,17 @@
+package com.enterprise.carshare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoThumbnailsDto {
+    private String original;
+    private String small;
+    private String medium;
+    private String large;
+}
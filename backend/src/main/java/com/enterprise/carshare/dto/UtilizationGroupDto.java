@@ -0,0 +1,27 @@
+package com.enterprise.carshare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UtilizationGroupDto {
+    private String key;
+    private String label;
+    private Integer vehicleCount;
+    private Long bookingCount;
+    private BigDecimal bookedHours;
+    private BigDecimal availableHours;
+    private BigDecimal utilizationPercent;
+    private Long idleGapCount;
+    private BigDecimal longestIdleGapHours;
+    private Integer peakConcurrency;
+    private LocalDateTime peakAt;
+}
@@ -0,0 +1,23 @@
+package com.enterprise.carshare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UtilizationReportDto {
+    private LocalDate periodStart;
+    private LocalDate periodEnd;
+    private String groupBy;
+    private UtilizationGroupDto fleet;
+    private List<UtilizationGroupDto> groups;
+    private LocalDateTime generatedAt;
+}
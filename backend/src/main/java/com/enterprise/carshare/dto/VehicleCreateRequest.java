@@ -4,6 +4,7 @@ import com.enterprise.carshare.domain.Vehicle;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 import java.time.LocalDate;
@@ -12,18 +13,22 @@ import java.time.LocalDate;
 public class VehicleCreateRequest {
     
     @NotBlank(message = "Plate number is required")
+    @Size(max = 20, message = "Plate number must be at most 20 characters")
     private String plateNumber;
     
     @NotBlank(message = "Brand is required")
+    @Size(max = 100, message = "Brand must be at most 100 characters")
     private String brand;
     
     @NotBlank(message = "Model is required")
+    @Size(max = 100, message = "Model must be at most 100 characters")
     private String model;
     
     @NotNull(message = "Year is required")
     @Positive(message = "Year must be positive")
     private Integer year;
     
+    @Size(max = 50, message = "Color must be at most 50 characters")
     private String color;
     
     @NotNull(message = "Vehicle type is required")
@@ -36,11 +41,21 @@ public class VehicleCreateRequest {
     @Positive(message = "Capacity must be positive")
     private Integer capacity;
     
+    @Size(max = 50, message = "VIN must be at most 50 characters")
     private String vin;
+    
+    @Size(max = 100, message = "Department owner must be at most 100 characters")
     private String departmentOwner;
+    
+    @Size(max = 100, message = "Cost center must be at most 100 characters")
     private String costCenter;
+    
     private LocalDate lastServiceDate;
     private LocalDate nextServiceDue;
+    
+    @Positive(message = "Next service mileage must be positive")
+    private Long nextServiceMileage;
+    
     private LocalDate insuranceExpiryDate;
     private LocalDate registrationExpiryDate;
 }
@@ -0,0 +1,24 @@
+package com.enterprise.carshare.dto;
+
+import com.enterprise.carshare.domain.VehicleDocument;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VehicleDocumentDto {
+    private Long id;
+    private Long vehicleId;
+    private VehicleDocument.DocumentType documentType;
+    private String fileName;
+    private Long fileSize;
+    private String url;
+    private Long uploadedById;
+    private LocalDateTime uploadedAt;
+}
@@ -29,6 +29,7 @@ public class VehicleDto {
     private Long currentMileage;
     private LocalDate lastServiceDate;
     private LocalDate nextServiceDue;
+    private Long nextServiceMileage;
     private LocalDate insuranceExpiryDate;
     private LocalDate registrationExpiryDate;
 }
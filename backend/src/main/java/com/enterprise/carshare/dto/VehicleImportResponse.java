@@ -0,0 +1,19 @@
+package com.enterprise.carshare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VehicleImportResponse {
+    private int rows;
+    private int imported;
+    private int failed;
+    private List<VehicleImportRowError> errors;
+}
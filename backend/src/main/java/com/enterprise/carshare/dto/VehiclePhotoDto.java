@@ -0,0 +1,22 @@
+package com.enterprise.carshare.dto;
+
+import com.enterprise.carshare.domain.VehiclePhoto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VehiclePhotoDto {
+    private Long id;
+    private Long vehicleId;
+    private VehiclePhoto.PhotoType photoType;
+    private String url;
+    private Long uploadedById;
+    private LocalDateTime uploadedAt;
+}
@@ -0,0 +1,94 @@
+package com.enterprise.carshare.mapper;
+
+import com.enterprise.carshare.domain.Booking;
+import com.enterprise.carshare.domain.BookingUsage;
+import com.enterprise.carshare.dto.BookingDto;
+import com.enterprise.carshare.dto.BookingUsageDto;
+import com.enterprise.carshare.dto.PhotoThumbnailsDto;
+import com.enterprise.carshare.service.BlobStorageService;
+import com.enterprise.carshare.service.ThumbnailService.ThumbnailSize;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps a booking together with its vehicle, approver and usage, as fetched by the
+ * {@code Booking.details} entity graph.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingDetailsMapper {
+    
+    private final BookingMapper bookingMapper;
+    private final VehicleMapper vehicleMapper;
+    
+    public BookingDto toDto(Booking booking) {
+        BookingDto dto = bookingMapper.toDto(booking);
+        
+        // Map vehicle
+        if (booking.getVehicle() != null) {
+            dto.setVehicle(vehicleMapper.toDto(booking.getVehicle()));
+        }
+        
+        // Map approver email
+        if (booking.getApprover() != null) {
+            dto.setApproverEmail(booking.getApprover().getEmail());
+        }
+        
+        // Map usage
+        if (booking.getUsage() != null) {
+            dto.setUsage(toUsageDto(booking.getUsage()));
+        }
+        
+        return dto;
+    }
+    
+    public BookingUsageDto toUsageDto(BookingUsage usage) {
+        return BookingUsageDto.builder()
+                .id(usage.getId())
+                .bookingId(usage.getBooking().getId())
+                .startMileage(usage.getStartMileage())
+                .endMileage(usage.getEndMileage())
+                .startFuelLevel(usage.getStartFuelLevel())
+                .endFuelLevel(usage.getEndFuelLevel())
+                .distanceTravelled(usage.getDistanceTravelled())
+                .damageReported(usage.getDamageReported())
+                .damageDescription(usage.getDamageDescription())
+                .preTripPhotos(usage.getPreTripPhotos())
+                .postTripPhotos(usage.getPostTripPhotos())
+                .preTripThumbnails(thumbnailsOf(usage.getPreTripPhotos()))
+                .postTripThumbnails(thumbnailsOf(usage.getPostTripPhotos()))
+                .checkoutComments(usage.getCheckoutComments())
+                .checkinComments(usage.getCheckinComments())
+                .checkedOutAt(usage.getCheckedOutAt())
+                .checkedInAt(usage.getCheckedInAt())
+                .build();
+    }
+    
+    // Thumbnail URLs for stored photo references; references that do not point at the blob store are
+    // skipped. Thumbnails are generated on first request, so nothing here touches the generator.
+    private static List<PhotoThumbnailsDto> thumbnailsOf(String[] photos) {
+        if (photos == null) {
+            return null;
+        }
+        List<PhotoThumbnailsDto> thumbnails = new ArrayList<>(photos.length);
+        for (String photo : photos) {
+            String key = BlobStorageService.keyOf(photo);
+            if (key != null) {
+                thumbnails.add(PhotoThumbnailsDto.builder()
+                        .original(BlobStorageService.urlOf(key))
+                        .small(thumbnailUrlOf(key, ThumbnailSize.SMALL))
+                        .medium(thumbnailUrlOf(key, ThumbnailSize.MEDIUM))
+                        .large(thumbnailUrlOf(key, ThumbnailSize.LARGE))
+                        .build());
+            }
+        }
+        return thumbnails;
+    }
+    
+    private static String thumbnailUrlOf(String key, ThumbnailSize size) {
+        return BlobStorageService.urlOf(key) + "/thumbnails/" + size.pathSegment();
+    }
+}
@@ -0,0 +1,10 @@
+package com.enterprise.carshare.repository;
+
+import java.time.LocalDateTime;
+
+public interface BookingIntervalView {
+    Long getId();
+    Long getVehicleId();
+    LocalDateTime getStartDateTime();
+    LocalDateTime getEndDateTime();
+}
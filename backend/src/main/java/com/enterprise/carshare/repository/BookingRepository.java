@@ -1,21 +1,130 @@
 package com.enterprise.carshare.repository;
 
 import com.enterprise.carshare.domain.Booking;
+import com.enterprise.carshare.domain.User;
+import com.enterprise.carshare.dto.BookingExportRow;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
     
     Page<Booking> findByUserId(Long userId, Pageable pageable);
     
+    // Detailed variants fetch vehicle, user, approver and usage in the same query for DTO mapping
+    @EntityGraph("Booking.details")
+    Page<Booking> findDetailedByUserId(Long userId, Pageable pageable);
+    
+    @EntityGraph("Booking.details")
+    @Query("SELECT b FROM Booking b WHERE b.status = :status")
+    Page<Booking> findDetailedByStatus(@Param("status") Booking.BookingStatus status, Pageable pageable);
+    
+    @EntityGraph("Booking.details")
+    @Query("SELECT b FROM Booking b")
+    Page<Booking> findAllDetailed(Pageable pageable);
+    
+    @EntityGraph("Booking.details")
+    @Query("SELECT b FROM Booking b WHERE b.id = :id")
+    Optional<Booking> findDetailedById(@Param("id") Long id);
+    
+    // Holds the row until commit for a status transition. The booking sweeper skips locked rows, and a
+    // transition that waits on a sweep sees the status the sweep left behind.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.id = :id")
+    Optional<Booking> lockById(@Param("id") Long id);
+    
+    // Versions of the rows behind detailed booking DTOs, for ETags. A booking's version is the latest
+    // change to it, its vehicle, user, approver or usage, without loading any of them.
+    @Query(value = "SELECT COUNT(*) AS total, CAST(SUM(FLOOR(EXTRACT(EPOCH FROM GREATEST(" +
+                   "b.updated_at, v.updated_at, u.updated_at, a.updated_at, bu.updated_at)) * 1000)) AS BIGINT) AS checksum " +
+                   "FROM bookings b JOIN vehicles v ON v.id = b.vehicle_id JOIN users u ON u.id = b.user_id " +
+                   "LEFT JOIN users a ON a.id = b.approver_id LEFT JOIN booking_usage bu ON bu.booking_id = b.id " +
+                   "WHERE b.id = :id", nativeQuery = true)
+    VersionView findVersionById(@Param("id") Long id);
+    
+    @Query(value = "SELECT COUNT(*) AS total, CAST(SUM(FLOOR(EXTRACT(EPOCH FROM GREATEST(" +
+                   "b.updated_at, v.updated_at, u.updated_at, a.updated_at, bu.updated_at)) * 1000)) AS BIGINT) AS checksum " +
+                   "FROM bookings b JOIN vehicles v ON v.id = b.vehicle_id JOIN users u ON u.id = b.user_id " +
+                   "LEFT JOIN users a ON a.id = b.approver_id LEFT JOIN booking_usage bu ON bu.booking_id = b.id " +
+                   "WHERE b.user_id = :userId", nativeQuery = true)
+    VersionView findVersionByUserId(@Param("userId") Long userId);
+    
+    // Keyset pages ordered by (startDateTime, id) descending, seeking past the given position
+    @EntityGraph("Booking.details")
+    @Query("SELECT b FROM Booking b WHERE b.user.id = :userId AND " +
+           "b.startDateTime <= :startDateTime AND (b.startDateTime < :startDateTime OR b.id < :id) " +
+           "ORDER BY b.startDateTime DESC, b.id DESC")
+    List<Booking> findDetailedByUserIdBefore(
+        @Param("userId") Long userId,
+        @Param("startDateTime") LocalDateTime startDateTime,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+    
+    @EntityGraph("Booking.details")
+    @Query("SELECT b FROM Booking b WHERE b.status = :status AND " +
+           "b.startDateTime <= :startDateTime AND (b.startDateTime < :startDateTime OR b.id < :id) " +
+           "ORDER BY b.startDateTime DESC, b.id DESC")
+    List<Booking> findDetailedByStatusBefore(
+        @Param("status") Booking.BookingStatus status,
+        @Param("startDateTime") LocalDateTime startDateTime,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+    
+    @EntityGraph("Booking.details")
+    @Query("SELECT b FROM Booking b WHERE " +
+           "b.startDateTime <= :startDateTime AND (b.startDateTime < :startDateTime OR b.id < :id) " +
+           "ORDER BY b.startDateTime DESC, b.id DESC")
+    List<Booking> findAllDetailedBefore(
+        @Param("startDateTime") LocalDateTime startDateTime,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+    
+    @Query("SELECT COUNT(b) AS bookingCount, COALESCE(SUM(u.distanceTravelled), 0) AS totalDistance " +
+           "FROM Booking b LEFT JOIN b.usage u " +
+           "WHERE b.status = 'COMPLETED' " +
+           "AND b.startDateTime >= :from AND b.startDateTime < :to")
+    UsageTotalsView sumCompletedUsage(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    // Streamed through a server-side cursor; must be consumed inside a read-only transaction
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.enterprise.carshare.dto.BookingExportRow(" +
+           "b.id, b.status, b.startDateTime, b.endDateTime, b.pickupLocation, b.returnLocation, b.purpose, b.createdAt, " +
+           "v.id, v.plateNumber, v.brand, v.model, v.vehicleType, v.departmentOwner, v.costCenter, " +
+           "u.id, u.email, u.firstName, u.lastName, u.department, u.costCenter, a.email, " +
+           "us.startMileage, us.endMileage, us.distanceTravelled, us.startFuelLevel, us.endFuelLevel, " +
+           "us.damageReported, us.checkedOutAt, us.checkedInAt) " +
+           "FROM Booking b JOIN b.vehicle v JOIN b.user u LEFT JOIN b.approver a LEFT JOIN b.usage us " +
+           "WHERE b.startDateTime >= :from AND b.startDateTime < :to " +
+           "ORDER BY b.startDateTime, b.id")
+    Stream<BookingExportRow> streamExportRows(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    long countByUserId(Long userId);
+    
+    long countByStatus(Booking.BookingStatus status);
+    
     Page<Booking> findByApproverId(Long approverId, Pageable pageable);
     
     Page<Booking> findByVehicleId(Long vehicleId, Pageable pageable);
@@ -31,6 +140,61 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
         @Param("endDateTime") LocalDateTime endDateTime
     );
     
+    @Query("SELECT b.id AS id, b.vehicle.id AS vehicleId, b.startDateTime AS startDateTime, " +
+           "b.endDateTime AS endDateTime FROM Booking b WHERE b.status IN ('PENDING', 'APPROVED')")
+    List<BookingIntervalView> findActiveIntervals();
+    
+    @Query("SELECT b.id AS id, b.vehicle.id AS vehicleId, b.startDateTime AS startDateTime, " +
+           "b.endDateTime AS endDateTime FROM Booking b WHERE b.vehicle.id = :vehicleId AND " +
+           "b.status IN ('PENDING', 'APPROVED')")
+    List<BookingIntervalView> findActiveIntervalsByVehicleId(@Param("vehicleId") Long vehicleId);
+    
+    @Query("SELECT b.id AS id, b.vehicle.id AS vehicleId, b.startDateTime AS startDateTime, " +
+           "b.endDateTime AS endDateTime FROM Booking b WHERE b.vehicle.id = :vehicleId AND " +
+           "b.status IN ('PENDING', 'APPROVED') AND b.startDateTime < :to AND b.endDateTime > :from")
+    List<BookingIntervalView> findActiveIntervalsInRange(
+        @Param("vehicleId") Long vehicleId,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to
+    );
+    
+    @Query("SELECT b.id AS id, b.vehicle.id AS vehicleId, b.startDateTime AS startDateTime, " +
+           "b.endDateTime AS endDateTime FROM Booking b WHERE b.vehicle.id IN :vehicleIds AND " +
+           "b.status = 'APPROVED' AND b.startDateTime < :to AND b.endDateTime > :from")
+    List<BookingIntervalView> findApprovedIntervalsInRange(
+        @Param("vehicleIds") Collection<Long> vehicleIds,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to
+    );
+    
+    @Query("SELECT DISTINCT b.vehicle.id FROM Booking b WHERE b.status IN ('PENDING', 'APPROVED') AND " +
+           "b.startDateTime < :to AND b.endDateTime > :from")
+    List<Long> findBookedVehicleIds(
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to
+    );
+    
+    @Query("SELECT DISTINCT b.vehicle.id FROM Booking b WHERE b.vehicle.id IN :vehicleIds AND b.status = 'APPROVED'")
+    List<Long> findVehicleIdsWithApprovedBookings(@Param("vehicleIds") Collection<Long> vehicleIds);
+    
+    @Query("SELECT DISTINCT b.vehicle.id FROM Booking b WHERE b.id IN :ids")
+    List<Long> findVehicleIdsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @EntityGraph(attributePaths = "vehicle")
+    @Query("SELECT b FROM Booking b WHERE b.id IN :ids")
+    List<Booking> findWithVehicleByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Guarded by the PENDING check so a booking changed concurrently is not counted
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status, b.approver = :approver, b.updatedAt = :now " +
+           "WHERE b.id IN :ids AND b.status = 'PENDING'")
+    int decidePending(
+        @Param("ids") Collection<Long> ids,
+        @Param("status") Booking.BookingStatus status,
+        @Param("approver") User approver,
+        @Param("now") LocalDateTime now
+    );
+    
     @Query("SELECT b FROM Booking b WHERE b.status = :status")
     Page<Booking> findByStatus(@Param("status") Booking.BookingStatus status, Pageable pageable);
 }
@@ -0,0 +1,32 @@
+package com.enterprise.carshare.repository;
+
+import com.enterprise.carshare.domain.Booking;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+    
+    // Inserts the bookings with a single JDBC batch and assigns their generated ids
+    void insertAll(List<Booking> bookings);
+    
+    // Streams approved and completed bookings overlapping the range, ordered by vehicle and start, as
+    // epoch seconds without materialising rows
+    void forEachBookedInterval(LocalDateTime from, LocalDateTime to, BookedIntervalConsumer consumer);
+    
+    // Each sweep changes up to batchSize bookings with one statement and returns their ids, skipping
+    // rows locked by a concurrent sweeper or request. PENDING bookings that started before the cutoff
+    // become EXPIRED.
+    List<Long> expirePendingBefore(LocalDateTime cutoff, LocalDateTime now, int batchSize);
+    
+    // APPROVED bookings that ended before the cutoff without ever being checked out become EXPIRED
+    List<Long> expireNoShowsBefore(LocalDateTime cutoff, LocalDateTime now, int batchSize);
+    
+    // APPROVED bookings that were checked out and ended before the cutoff are flagged as overdue
+    List<Long> flagOverdueBefore(LocalDateTime cutoff, LocalDateTime now, int batchSize);
+    
+    @FunctionalInterface
+    interface BookedIntervalConsumer {
+        void accept(long vehicleId, long startEpochSecond, long endEpochSecond);
+    }
+}
@@ -0,0 +1,145 @@
+package com.enterprise.carshare.repository;
+
+import com.enterprise.carshare.domain.Booking;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public class BookingRepositoryImpl implements BookingRepositoryCustom {
+    
+    private static final String INSERT_BOOKING =
+            "INSERT INTO bookings (vehicle_id, user_id, start_date_time, end_date_time, pickup_location, " +
+            "return_location, purpose, status, approval_required, created_at, updated_at) " +
+            "VALUES (:vehicleId, :userId, :startDateTime, :endDateTime, :pickupLocation, " +
+            ":returnLocation, :purpose, :status, :approvalRequired, :createdAt, :updatedAt)";
+    
+    // Timestamps are stored without a zone, so the epoch is taken as UTC like the interval index does
+    private static final String BOOKED_INTERVALS =
+            "SELECT vehicle_id, EXTRACT(EPOCH FROM start_date_time)::bigint, " +
+            "EXTRACT(EPOCH FROM end_date_time)::bigint " +
+            "FROM bookings WHERE status IN ('APPROVED', 'COMPLETED') " +
+            "AND start_date_time < :to AND end_date_time > :from " +
+            "ORDER BY vehicle_id, start_date_time";
+    
+    // Oldest first, so a backlog is worked off in the order it built up
+    private static final String EXPIRE_PENDING =
+            "UPDATE bookings SET status = 'EXPIRED', updated_at = :now " +
+            "WHERE id IN (" +
+            "    SELECT id FROM bookings " +
+            "    WHERE status = 'PENDING' AND start_date_time < :cutoff " +
+            "    ORDER BY start_date_time " +
+            "    LIMIT :batchSize " +
+            "    FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id";
+    
+    private static final String EXPIRE_NO_SHOWS =
+            "UPDATE bookings SET status = 'EXPIRED', updated_at = :now " +
+            "WHERE id IN (" +
+            "    SELECT b.id FROM bookings b " +
+            "    WHERE b.status = 'APPROVED' AND b.overdue_at IS NULL AND b.end_date_time < :cutoff " +
+            "    AND NOT EXISTS (SELECT 1 FROM booking_usage u WHERE u.booking_id = b.id) " +
+            "    ORDER BY b.end_date_time " +
+            "    LIMIT :batchSize " +
+            "    FOR UPDATE OF b SKIP LOCKED) " +
+            "RETURNING id";
+    
+    private static final String FLAG_OVERDUE =
+            "UPDATE bookings SET overdue_at = :now, updated_at = :now " +
+            "WHERE id IN (" +
+            "    SELECT b.id FROM bookings b " +
+            "    WHERE b.status = 'APPROVED' AND b.overdue_at IS NULL AND b.end_date_time < :cutoff " +
+            "    AND EXISTS (SELECT 1 FROM booking_usage u WHERE u.booking_id = b.id) " +
+            "    ORDER BY b.end_date_time " +
+            "    LIMIT :batchSize " +
+            "    FOR UPDATE OF b SKIP LOCKED) " +
+            "RETURNING id";
+    
+    private static final int STREAM_FETCH_SIZE = 5000;
+    
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    // Same data source, but rows are fetched in pages instead of all at once
+    private final NamedParameterJdbcTemplate streamingJdbcTemplate;
+    
+    public BookingRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getJdbcTemplate().getDataSource());
+        streaming.setFetchSize(STREAM_FETCH_SIZE);
+        this.streamingJdbcTemplate = new NamedParameterJdbcTemplate(streaming);
+    }
+    
+    @Override
+    public void insertAll(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        SqlParameterSource[] batchArgs = new SqlParameterSource[bookings.size()];
+        for (int i = 0; i < bookings.size(); i++) {
+            Booking booking = bookings.get(i);
+            booking.setCreatedAt(now);
+            booking.setUpdatedAt(now);
+            batchArgs[i] = new MapSqlParameterSource()
+                    .addValue("vehicleId", booking.getVehicle().getId())
+                    .addValue("userId", booking.getUser().getId())
+                    .addValue("startDateTime", booking.getStartDateTime())
+                    .addValue("endDateTime", booking.getEndDateTime())
+                    .addValue("pickupLocation", booking.getPickupLocation())
+                    .addValue("returnLocation", booking.getReturnLocation())
+                    .addValue("purpose", booking.getPurpose())
+                    .addValue("status", booking.getStatus().name())
+                    .addValue("approvalRequired", booking.getApprovalRequired())
+                    .addValue("createdAt", now)
+                    .addValue("updatedAt", now);
+        }
+        
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(INSERT_BOOKING, batchArgs, keyHolder, new String[] {"id"});
+        
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < bookings.size(); i++) {
+            bookings.get(i).setId(((Number) keys.get(i).get("id")).longValue());
+        }
+    }
+    
+    // Needs an open transaction: the PostgreSQL driver only honours the fetch size with autocommit off
+    @Override
+    public void forEachBookedInterval(LocalDateTime from, LocalDateTime to, BookedIntervalConsumer consumer) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", from)
+                .addValue("to", to);
+        RowCallbackHandler handler = rs -> consumer.accept(rs.getLong(1), rs.getLong(2), rs.getLong(3));
+        streamingJdbcTemplate.query(BOOKED_INTERVALS, params, handler);
+    }
+    
+    @Override
+    public List<Long> expirePendingBefore(LocalDateTime cutoff, LocalDateTime now, int batchSize) {
+        return sweep(EXPIRE_PENDING, cutoff, now, batchSize);
+    }
+    
+    @Override
+    public List<Long> expireNoShowsBefore(LocalDateTime cutoff, LocalDateTime now, int batchSize) {
+        return sweep(EXPIRE_NO_SHOWS, cutoff, now, batchSize);
+    }
+    
+    @Override
+    public List<Long> flagOverdueBefore(LocalDateTime cutoff, LocalDateTime now, int batchSize) {
+        return sweep(FLAG_OVERDUE, cutoff, now, batchSize);
+    }
+    
+    private List<Long> sweep(String sql, LocalDateTime cutoff, LocalDateTime now, int batchSize) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("cutoff", cutoff)
+                .addValue("now", now)
+                .addValue("batchSize", batchSize);
+        return jdbcTemplate.queryForList(sql, params, Long.class);
+    }
+}
@@ -0,0 +1,41 @@
+package com.enterprise.carshare.repository;
+
+import com.enterprise.carshare.domain.DailyUsageRollup;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Repository
+public interface DailyUsageRollupRepository extends JpaRepository<DailyUsageRollup, LocalDate> {
+    
+    // Rebuilds one day from the bookings themselves, so replaying it is harmless. Declaring the
+    // touched table keeps Hibernate from evicting every second-level cache region.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_usage_rollup"))
+    @Query(value = "INSERT INTO daily_usage_rollup (usage_date, completed_bookings, total_distance, updated_at) " +
+                   "SELECT CAST(:usageDate AS DATE), COUNT(b.id), COALESCE(SUM(u.distance_travelled), 0), " +
+                   "CURRENT_TIMESTAMP " +
+                   "FROM bookings b LEFT JOIN booking_usage u ON u.booking_id = b.id " +
+                   "WHERE b.status = 'COMPLETED' AND b.start_date_time >= :dayStart AND b.start_date_time < :dayEnd " +
+                   "ON CONFLICT (usage_date) DO UPDATE SET " +
+                   "completed_bookings = EXCLUDED.completed_bookings, " +
+                   "total_distance = EXCLUDED.total_distance, " +
+                   "updated_at = CURRENT_TIMESTAMP",
+           nativeQuery = true)
+    int recomputeDay(@Param("usageDate") LocalDate usageDate,
+                     @Param("dayStart") LocalDateTime dayStart,
+                     @Param("dayEnd") LocalDateTime dayEnd);
+    
+    @Query("SELECT COALESCE(SUM(r.completedBookings), 0) AS bookingCount, " +
+           "COALESCE(SUM(r.totalDistance), 0) AS totalDistance " +
+           "FROM DailyUsageRollup r WHERE r.usageDate BETWEEN :startDate AND :endDate")
+    UsageTotalsView sumBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
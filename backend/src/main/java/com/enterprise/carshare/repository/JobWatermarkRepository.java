@@ -0,0 +1,19 @@
+package com.enterprise.carshare.repository;
+
+import com.enterprise.carshare.domain.JobWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface JobWatermarkRepository extends JpaRepository<JobWatermark, String> {
+    
+    // Empty while another node holds the row, so only one instance of a job runs at a time and the
+    // others skip their turn instead of queueing behind it
+    @Query(value = "SELECT * FROM job_watermarks WHERE job_name = :jobName FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    Optional<JobWatermark> lockByJobName(@Param("jobName") String jobName);
+}
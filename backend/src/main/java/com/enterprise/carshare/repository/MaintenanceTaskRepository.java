@@ -3,12 +3,71 @@ package com.enterprise.carshare.repository;
 import com.enterprise.carshare.domain.MaintenanceTask;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface MaintenanceTaskRepository extends JpaRepository<MaintenanceTask, Long> {
+public interface MaintenanceTaskRepository extends JpaRepository<MaintenanceTask, Long>, MaintenanceTaskRepositoryCustom {
     Page<MaintenanceTask> findByVehicleId(Long vehicleId, Pageable pageable);
     Page<MaintenanceTask> findByStatus(MaintenanceTask.MaintenanceStatus status, Pageable pageable);
+    
+    long countByVehicleId(Long vehicleId);
+    
+    // Keyset pages ordered by (createdAt, id) descending, seeking past the given position
+    @EntityGraph(attributePaths = {"vehicle", "createdBy"})
+    @Query("SELECT t FROM MaintenanceTask t WHERE " +
+           "t.createdAt <= :createdAt AND (t.createdAt < :createdAt OR t.id < :id) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<MaintenanceTask> findPageBefore(
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+    
+    @EntityGraph(attributePaths = {"vehicle", "createdBy"})
+    @Query("SELECT t FROM MaintenanceTask t WHERE t.vehicle.id = :vehicleId AND " +
+           "t.createdAt <= :createdAt AND (t.createdAt < :createdAt OR t.id < :id) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<MaintenanceTask> findPageByVehicleIdBefore(
+        @Param("vehicleId") Long vehicleId,
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+    
+    @Query("SELECT DISTINCT t.vehicle.id FROM MaintenanceTask t " +
+           "WHERE t.vehicle.id IN :vehicleIds AND t.status IN ('OPEN', 'IN_PROGRESS')")
+    List<Long> findVehicleIdsWithOpenTasks(@Param("vehicleIds") Collection<Long> vehicleIds);
+    
+    @Query("SELECT DISTINCT t.vehicle.id FROM MaintenanceTask t WHERE t.status = 'DONE' AND t.updatedAt > :since")
+    List<Long> findVehicleIdsCompletedSince(@Param("since") LocalDateTime since);
+    
+    // Planned dates of open work, inclusive on both ends
+    @Query("SELECT COUNT(t) > 0 FROM MaintenanceTask t WHERE t.vehicle.id = :vehicleId " +
+           "AND t.status IN ('OPEN', 'IN_PROGRESS') AND t.plannedDate BETWEEN :fromDate AND :toDate")
+    boolean existsOpenPlannedBetween(
+        @Param("vehicleId") Long vehicleId,
+        @Param("fromDate") LocalDate fromDate,
+        @Param("toDate") LocalDate toDate
+    );
+    
+    @Query("SELECT t.plannedDate FROM MaintenanceTask t WHERE t.vehicle.id = :vehicleId " +
+           "AND t.status IN ('OPEN', 'IN_PROGRESS') AND t.plannedDate BETWEEN :fromDate AND :toDate")
+    List<LocalDate> findOpenPlannedDatesBetween(
+        @Param("vehicleId") Long vehicleId,
+        @Param("fromDate") LocalDate fromDate,
+        @Param("toDate") LocalDate toDate
+    );
+    
+    @Query("SELECT DISTINCT t.vehicle.id FROM MaintenanceTask t " +
+           "WHERE t.status IN ('OPEN', 'IN_PROGRESS') AND t.plannedDate BETWEEN :fromDate AND :toDate")
+    List<Long> findVehicleIdsPlannedBetween(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
 }
-
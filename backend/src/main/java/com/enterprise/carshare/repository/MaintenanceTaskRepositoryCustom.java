@@ -0,0 +1,12 @@
+package com.enterprise.carshare.repository;
+
+import com.enterprise.carshare.domain.MaintenanceTask;
+
+import java.util.List;
+
+public interface MaintenanceTaskRepositoryCustom {
+    
+    // Inserts the tasks as one JDBC batch and assigns their generated ids. IDENTITY ids keep
+    // Hibernate from batching these inserts itself.
+    void insertAll(List<MaintenanceTask> tasks);
+}
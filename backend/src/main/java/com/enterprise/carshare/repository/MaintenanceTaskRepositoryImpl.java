@@ -0,0 +1,58 @@
+package com.enterprise.carshare.repository;
+
+import com.enterprise.carshare.domain.MaintenanceTask;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class MaintenanceTaskRepositoryImpl implements MaintenanceTaskRepositoryCustom {
+    
+    private static final String INSERT_TASK =
+            "INSERT INTO maintenance_tasks (vehicle_id, created_by, title, description, status, planned_date, " +
+            "reason, created_at, updated_at) " +
+            "VALUES (:vehicleId, :createdBy, :title, :description, :status, :plannedDate, " +
+            ":reason, :createdAt, :updatedAt)";
+    
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    
+    @Override
+    public void insertAll(List<MaintenanceTask> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        SqlParameterSource[] batchArgs = new SqlParameterSource[tasks.size()];
+        for (int i = 0; i < tasks.size(); i++) {
+            MaintenanceTask task = tasks.get(i);
+            task.setCreatedAt(now);
+            task.setUpdatedAt(now);
+            batchArgs[i] = new MapSqlParameterSource()
+                    .addValue("vehicleId", task.getVehicle().getId())
+                    .addValue("createdBy", task.getCreatedBy() != null ? task.getCreatedBy().getId() : null)
+                    .addValue("title", task.getTitle())
+                    .addValue("description", task.getDescription())
+                    .addValue("status", task.getStatus().name())
+                    .addValue("plannedDate", task.getPlannedDate())
+                    .addValue("reason", task.getReason() != null ? task.getReason().name() : null)
+                    .addValue("createdAt", now)
+                    .addValue("updatedAt", now);
+        }
+        
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(INSERT_TASK, batchArgs, keyHolder, new String[] {"id"});
+        
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < tasks.size(); i++) {
+            tasks.get(i).setId(((Number) keys.get(i).get("id")).longValue());
+        }
+    }
+}
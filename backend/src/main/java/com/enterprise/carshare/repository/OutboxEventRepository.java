@@ -0,0 +1,41 @@
+package com.enterprise.carshare.repository;
+
+import com.enterprise.carshare.domain.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long>, OutboxEventRepositoryCustom {
+    
+    long countByStatus(OutboxEvent.OutboxStatus status);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = 'DONE', e.processedAt = :now, e.lockedUntil = NULL, " +
+           "e.lastError = NULL WHERE e.id = :id")
+    int markDone(@Param("id") Long id, @Param("now") LocalDateTime now);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.availableAt = :availableAt, e.lockedUntil = NULL, " +
+           "e.lastError = :error WHERE e.id = :id")
+    int scheduleRetry(@Param("id") Long id, @Param("availableAt") LocalDateTime availableAt,
+                      @Param("error") String error);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = 'DEAD', e.processedAt = :now, e.lockedUntil = NULL, " +
+           "e.lastError = :error WHERE e.id = :id")
+    int markDead(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("error") String error);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = 'DONE' AND e.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,14 @@
+package com.enterprise.carshare.repository;
+
+import com.enterprise.carshare.domain.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxEventRepositoryCustom {
+    
+    // Leases up to batchSize deliverable events until lockedUntil and returns them with attempts
+    // already incremented. Rows claimed by a concurrent dispatcher are skipped rather than waited on.
+    // The payload is returned unparsed in rawPayload.
+    List<OutboxEvent> claimBatch(int batchSize, LocalDateTime now, LocalDateTime lockedUntil);
+}
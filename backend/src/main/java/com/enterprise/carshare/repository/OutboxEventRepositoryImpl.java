@@ -0,0 +1,55 @@
+package com.enterprise.carshare.repository;
+
+import com.enterprise.carshare.domain.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class OutboxEventRepositoryImpl implements OutboxEventRepositoryCustom {
+    
+    // A single statement so the claim commits on its own; the lease, not the row lock, keeps other
+    // dispatchers away while the batch is delivered
+    private static final String CLAIM_BATCH =
+            "UPDATE outbox_events SET locked_until = :lockedUntil, attempts = attempts + 1 " +
+            "WHERE id IN (" +
+            "    SELECT id FROM outbox_events " +
+            "    WHERE status = 'PENDING' AND available_at <= :now " +
+            "    AND (locked_until IS NULL OR locked_until <= :now) " +
+            "    ORDER BY available_at, id " +
+            "    LIMIT :batchSize " +
+            "    FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, event_type, aggregate_type, aggregate_id, payload, status, attempts, " +
+            "available_at, locked_until, created_at";
+    
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    
+    @Override
+    public List<OutboxEvent> claimBatch(int batchSize, LocalDateTime now, LocalDateTime lockedUntil) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("batchSize", batchSize)
+                .addValue("now", now)
+                .addValue("lockedUntil", lockedUntil);
+        return jdbcTemplate.query(CLAIM_BATCH, params, (rs, rowNum) -> mapEvent(rs));
+    }
+    
+    private OutboxEvent mapEvent(ResultSet rs) throws SQLException {
+        return OutboxEvent.builder()
+                .id(rs.getLong("id"))
+                .eventType(rs.getString("event_type"))
+                .aggregateType(rs.getString("aggregate_type"))
+                .aggregateId(rs.getLong("aggregate_id"))
+                .rawPayload(rs.getString("payload"))
+                .status(OutboxEvent.OutboxStatus.valueOf(rs.getString("status")))
+                .attempts(rs.getInt("attempts"))
+                .availableAt(rs.getObject("available_at", LocalDateTime.class))
+                .lockedUntil(rs.getObject("locked_until", LocalDateTime.class))
+                .createdAt(rs.getObject("created_at", LocalDateTime.class))
+                .build();
+    }
+}
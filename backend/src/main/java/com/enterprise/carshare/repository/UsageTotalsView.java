@@ -0,0 +1,6 @@
+package com.enterprise.carshare.repository;
+
+public interface UsageTotalsView {
+    Long getBookingCount();
+    Long getTotalDistance();
+}
@@ -0,0 +1,19 @@
+package com.enterprise.carshare.repository;
+
+import com.enterprise.carshare.domain.VehicleDocument;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface VehicleDocumentRepository extends JpaRepository<VehicleDocument, Long> {
+    
+    List<VehicleDocument> findByVehicleIdOrderByUploadedAtDesc(Long vehicleId);
+    
+    List<VehicleDocument> findByVehicleIdAndDocumentTypeOrderByUploadedAtDesc(
+            Long vehicleId, VehicleDocument.DocumentType documentType);
+    
+    Optional<VehicleDocument> findByIdAndVehicleId(Long id, Long vehicleId);
+}
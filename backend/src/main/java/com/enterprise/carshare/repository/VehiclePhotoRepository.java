@@ -0,0 +1,16 @@
+package com.enterprise.carshare.repository;
+
+import com.enterprise.carshare.domain.VehiclePhoto;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface VehiclePhotoRepository extends JpaRepository<VehiclePhoto, Long> {
+    
+    List<VehiclePhoto> findByVehicleIdOrderByUploadedAtDesc(Long vehicleId);
+    
+    Optional<VehiclePhoto> findByIdAndVehicleId(Long id, Long vehicleId);
+}
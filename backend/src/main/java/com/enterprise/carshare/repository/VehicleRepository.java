@@ -8,6 +8,10 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,18 +19,72 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
     Optional<Vehicle> findByPlateNumber(String plateNumber);
     boolean existsByPlateNumber(String plateNumber);
     
+    @Query("SELECT v.plateNumber FROM Vehicle v WHERE v.plateNumber IN :plateNumbers")
+    List<String> findExistingPlateNumbers(@Param("plateNumbers") Collection<String> plateNumbers);
+    
+    @Query("SELECT v.vin FROM Vehicle v WHERE v.vin IN :vins")
+    List<String> findExistingVins(@Param("vins") Collection<String> vins);
+    
+    List<Vehicle> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
     Page<Vehicle> findByStatus(Vehicle.VehicleStatus status, Pageable pageable);
     
+    long countByStatus(Vehicle.VehicleStatus status);
+    
+    // Version of the whole fleet for list ETags; both aggregates come from idx_vehicles_updated_at
+    @Query(value = "SELECT COUNT(*) AS total, " +
+                   "CAST(SUM(FLOOR(EXTRACT(EPOCH FROM updated_at) * 1000)) AS BIGINT) AS checksum " +
+                   "FROM vehicles", nativeQuery = true)
+    VersionView findVersion();
+    
+    @Query("SELECT v.id AS id, v.plateNumber AS plateNumber, v.departmentOwner AS departmentOwner, " +
+           "v.vehicleType AS vehicleType, v.createdAt AS createdAt FROM Vehicle v ORDER BY v.id")
+    List<VehicleUtilizationView> findAllForUtilization();
+    
+    // Vehicles with a date threshold in (after, until], i.e. newly inside the scheduler's look-ahead.
+    // Each branch is a range scan on its own index.
+    @Query("SELECT v.id FROM Vehicle v WHERE v.status <> 'INACTIVE' AND (" +
+           "(v.nextServiceDue > :after AND v.nextServiceDue <= :until) OR " +
+           "(v.insuranceExpiryDate > :after AND v.insuranceExpiryDate <= :until) OR " +
+           "(v.registrationExpiryDate > :after AND v.registrationExpiryDate <= :until))")
+    List<Long> findIdsWithThresholdBetween(@Param("after") LocalDate after, @Param("until") LocalDate until);
+    
+    // Vehicles edited since the given time (new dates, checked-in mileage) that are now within a threshold
+    @Query("SELECT v.id FROM Vehicle v WHERE v.updatedAt > :since AND v.status <> 'INACTIVE' AND (" +
+           "v.nextServiceDue <= :until OR v.insuranceExpiryDate <= :until OR " +
+           "v.registrationExpiryDate <= :until OR v.currentMileage >= v.nextServiceMileage - :mileageLead)")
+    List<Long> findIdsChangedWithinThresholds(
+        @Param("since") LocalDateTime since,
+        @Param("until") LocalDate until,
+        @Param("mileageLead") long mileageLead
+    );
+    
     Page<Vehicle> findByDepartmentOwner(String department, Pageable pageable);
     
     @Query("SELECT v FROM Vehicle v WHERE v.status = :status AND " +
            "(:department IS NULL OR v.departmentOwner = :department) AND " +
-           "(:vehicleType IS NULL OR v.vehicleType = :vehicleType)")
+           "(:vehicleType IS NULL OR v.vehicleType = :vehicleType) AND " +
+           "(:minCapacity IS NULL OR v.capacity >= :minCapacity)")
     Page<Vehicle> findAvailableVehicles(
         @Param("status") Vehicle.VehicleStatus status,
         @Param("department") String department,
         @Param("vehicleType") Vehicle.VehicleType vehicleType,
+        @Param("minCapacity") Integer minCapacity,
         Pageable pageable
     );
+    
+    // Candidates for a time window search. IN_USE is included, as approving any booking marks the
+    // vehicle in use however far ahead it is; whether the window itself is free is decided by bookings.
+    // Keep in line with VehicleStatus.isBookable, which admission checks.
+    @Query("SELECT v.id FROM Vehicle v WHERE v.status NOT IN ('MAINTENANCE', 'INACTIVE') AND " +
+           "(:department IS NULL OR v.departmentOwner = :department) AND " +
+           "(:vehicleType IS NULL OR v.vehicleType = :vehicleType) AND " +
+           "(:minCapacity IS NULL OR v.capacity >= :minCapacity) " +
+           "ORDER BY v.id")
+    List<Long> findBookableVehicleIds(
+        @Param("department") String department,
+        @Param("vehicleType") Vehicle.VehicleType vehicleType,
+        @Param("minCapacity") Integer minCapacity
+    );
 }
 
@@ -0,0 +1,13 @@
+package com.enterprise.carshare.repository;
+
+import com.enterprise.carshare.domain.Vehicle;
+
+import java.time.LocalDateTime;
+
+public interface VehicleUtilizationView {
+    Long getId();
+    String getPlateNumber();
+    String getDepartmentOwner();
+    Vehicle.VehicleType getVehicleType();
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,7 @@
+package com.enterprise.carshare.repository;
+
+// Row count and the sum of the rows' last-modified times in milliseconds; changes whenever a row does
+public interface VersionView {
+    Long getTotal();
+    Long getChecksum();
+}
@@ -21,7 +21,12 @@ import java.util.Collections;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
+    private static final String EVENT_STREAM_PATH = "/events";
+    private static final String TICKET_PARAMETER = "ticket";
+    
     private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final StreamTicketCache streamTicketCache;
     
     @Override
     protected void doFilterInternal(
@@ -29,24 +34,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull HttpServletResponse response,
             @NonNull FilterChain filterChain) throws ServletException, IOException {
         
-        final String authHeader = request.getHeader("Authorization");
+        final String jwt = resolveToken(request);
         
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (jwt == null) {
+            authenticateStreamTicket(request);
             filterChain.doFilter(request, response);
             return;
         }
         
         try {
-            final String jwt = authHeader.substring(7);
-            final String userEmail = jwtUtil.extractEmail(jwt);
-            final String role = jwtUtil.extractRole(jwt);
             
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                if (jwtUtil.validateToken(jwt, userEmail)) {
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                JwtPrincipal principal = verifiedTokenCache.get(jwt);
+                if (principal == null) {
+                    // Parsing verifies signature and expiry, and throws if either check fails
+                    principal = jwtUtil.parseToken(jwt);
+                    verifiedTokenCache.put(jwt, principal);
+                }
+                
+                if (principal.getEmail() != null && !principal.isExpired()) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userEmail,
+                            principal,
                             jwt,
-                            Collections.singletonList(new SimpleGrantedAuthority(role))
+                            Collections.singletonList(new SimpleGrantedAuthority(principal.getRole()))
                     );
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
@@ -58,5 +68,34 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         filterChain.doFilter(request, response);
     }
+    
+    private static String resolveToken(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+        return null;
+    }
+    
+    // Browsers' EventSource cannot set headers, so the event stream alone accepts a ticket issued by
+    // POST /events/tickets instead; the JWT itself never appears in a URL
+    private void authenticateStreamTicket(HttpServletRequest request) {
+        if (!EVENT_STREAM_PATH.equals(request.getServletPath()) || !"GET".equals(request.getMethod())
+                || SecurityContextHolder.getContext().getAuthentication() != null) {
+            return;
+        }
+        String ticket = request.getParameter(TICKET_PARAMETER);
+        JwtPrincipal principal = ticket == null ? null : streamTicketCache.redeem(ticket);
+        if (principal == null) {
+            return;
+        }
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                principal,
+                null,
+                Collections.singletonList(new SimpleGrantedAuthority(principal.getRole()))
+        );
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
 }
 
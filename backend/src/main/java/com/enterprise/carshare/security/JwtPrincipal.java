@@ -0,0 +1,32 @@
+package com.enterprise.carshare.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.security.Principal;
+import java.time.Instant;
+
+/**
+ * Verified claims of a JWT, set as the authentication principal so request handling never has to
+ * parse the token again.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class JwtPrincipal implements Principal {
+    
+    private final Long userId;
+    private final String email;
+    private final String role;
+    private final Instant expiresAt;
+    
+    @Override
+    public String getName() {
+        return email;
+    }
+    
+    public boolean isExpired() {
+        return !Instant.now().isBefore(expiresAt);
+    }
+}
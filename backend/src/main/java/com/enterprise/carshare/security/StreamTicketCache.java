@@ -0,0 +1,52 @@
+package com.enterprise.carshare.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Short-lived, single-use tickets for opening the event stream. Browsers' EventSource cannot send an
+ * Authorization header, and a ticket in the URL is harmless once redeemed, unlike the JWT itself.
+ */
+@Component
+public class StreamTicketCache {
+    
+    private static final int TICKET_BYTES = 32;
+    
+    private final SecureRandom random = new SecureRandom();
+    private final Cache<String, JwtPrincipal> tickets;
+    private final Duration ttl;
+    
+    public StreamTicketCache(
+            @Value("${app.events.ticket-ttl:30s}") Duration ttl,
+            @Value("${app.events.max-subscribers:5000}") int maxTickets) {
+        this.ttl = ttl;
+        this.tickets = Caffeine.newBuilder()
+                .maximumSize(maxTickets)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+    
+    public String issue(JwtPrincipal principal) {
+        byte[] bytes = new byte[TICKET_BYTES];
+        random.nextBytes(bytes);
+        String ticket = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        tickets.put(ticket, principal);
+        return ticket;
+    }
+    
+    // Removing the entry is what makes a ticket single-use, even under concurrent redemption
+    public JwtPrincipal redeem(String ticket) {
+        JwtPrincipal principal = tickets.asMap().remove(ticket);
+        return principal == null || principal.isExpired() ? null : principal;
+    }
+    
+    public Duration getTtl() {
+        return ttl;
+    }
+}
@@ -0,0 +1,53 @@
+package com.enterprise.carshare.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Bounded cache of tokens whose signature has already been verified. Each entry expires with its
+ * token, so a hit is always as good as a fresh parse. Reads take no shared lock, as every
+ * authenticated request goes through here.
+ */
+@Component
+public class VerifiedTokenCache {
+    
+    private final Cache<String, JwtPrincipal> principals;
+    
+    public VerifiedTokenCache(@Value("${app.jwt.cache-size:10000}") int maxSize) {
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, JwtPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String token, JwtPrincipal principal, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), principal.getExpiresAt()).toNanos());
+                    }
+                    
+                    @Override
+                    public long expireAfterUpdate(String token, JwtPrincipal principal, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(token, principal, currentTime);
+                    }
+                    
+                    @Override
+                    public long expireAfterRead(String token, JwtPrincipal principal, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+    
+    public JwtPrincipal get(String token) {
+        return principals.getIfPresent(token);
+    }
+    
+    public void put(String token, JwtPrincipal principal) {
+        principals.put(token, principal);
+    }
+}
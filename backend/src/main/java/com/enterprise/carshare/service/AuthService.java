@@ -6,25 +6,29 @@ import com.enterprise.carshare.dto.AuthResponse;
 import com.enterprise.carshare.dto.RegisterRequest;
 import com.enterprise.carshare.repository.UserRepository;
 import com.enterprise.carshare.util.JwtUtil;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Optional;
+
+@Slf4j
 @Service
 @RequiredArgsConstructor
+@Timed(value = "carshare.service", histogram = true)
 public class AuthService implements UserDetailsService {
     
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtUtil jwtUtil;
-    private final AuthenticationManager authenticationManager;
+    private final TransactionTemplate transactionTemplate;
     
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
@@ -39,7 +43,7 @@ public class AuthService implements UserDetailsService {
                 .build();
     }
     
-    @Transactional
+    // Not transactional: hashing runs first so no connection is held while BCrypt works
     public AuthResponse register(RegisterRequest request) {
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new RuntimeException("Email already exists");
@@ -47,7 +51,7 @@ public class AuthService implements UserDetailsService {
         
         User user = User.builder()
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHashingService.encode(request.getPassword()))
                 .firstName(request.getFirstName())
                 .lastName(request.getLastName())
                 .department(request.getDepartment())
@@ -71,12 +75,21 @@ public class AuthService implements UserDetailsService {
     }
     
     public AuthResponse login(AuthRequest request) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
-        );
+        Optional<User> found = userRepository.findByEmail(request.getEmail());
+        if (found.isEmpty()) {
+            passwordHashingService.matchDummy(request.getPassword());
+            throw new BadCredentialsException("Bad credentials");
+        }
+        
+        User user = found.get();
+        if (!passwordHashingService.matches(request.getPassword(), user.getPassword())) {
+            throw new BadCredentialsException("Bad credentials");
+        }
+        if (!user.getEnabled()) {
+            throw new DisabledException("User is disabled");
+        }
         
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        rehashIfNeeded(user, request.getPassword());
         
         String token = jwtUtil.generateToken(user.getEmail(), user.getId(), user.getRole().name());
         
@@ -89,5 +102,21 @@ public class AuthService implements UserDetailsService {
                 .role(user.getRole().name())
                 .build();
     }
+    
+    private void rehashIfNeeded(User user, String rawPassword) {
+        if (!passwordHashingService.needsRehash(user.getPassword())) {
+            return;
+        }
+        try {
+            String password = passwordHashingService.encode(rawPassword);
+            // Changed on the managed entity, so only this user's second-level cache entry is updated
+            // rather than the whole region being evicted as a bulk update would
+            transactionTemplate.executeWithoutResult(status ->
+                    userRepository.findById(user.getId()).ifPresent(managed -> managed.setPassword(password)));
+        } catch (RuntimeException e) {
+            // Best effort: the login already succeeded and the next one will try again
+            log.warn("Could not rehash password for user {}: {}", user.getId(), e.getMessage());
+        }
+    }
 }
 
@@ -0,0 +1,182 @@
+package com.enterprise.carshare.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed blob store on the local filesystem. Blobs are named by the SHA-256 of their bytes
+ * and fanned out as {@code ab/cd/abcd...}, so uploading the same file twice stores it once. Uploads are
+ * streamed to a temporary file while hashing and then renamed into place, so a partially written blob
+ * is never visible.
+ */
+@Slf4j
+@Service
+public class BlobStorageService {
+    
+    private static final Pattern KEY = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern KEY_SUFFIX = Pattern.compile(".*?([0-9a-f]{64})/?$");
+    private static final int SNIFF_LENGTH = 12;
+    
+    private final Path root;
+    private final Path tmp;
+    
+    public BlobStorageService(@Value("${app.storage.root:./data/blobs}") String root) {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        this.tmp = this.root.resolve("tmp");
+    }
+    
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(tmp);
+        log.info("Blob store at {}", root);
+    }
+    
+    public StoredBlob store(InputStream input) throws IOException {
+        return store(input, contentType -> true);
+    }
+    
+    /**
+     * Stores the upload only if its sniffed content type is accepted. Returns {@code null} otherwise,
+     * having read no further than the type's magic bytes and stored nothing.
+     */
+    public StoredBlob store(InputStream input, Predicate<String> acceptType) throws IOException {
+        Path partial = Files.createTempFile(tmp, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            byte[] head = new byte[SNIFF_LENGTH];
+            int headLength;
+            String contentType;
+            long size;
+            try (DigestInputStream in = new DigestInputStream(input, digest);
+                 OutputStream out = Files.newOutputStream(partial, StandardOpenOption.WRITE)) {
+                headLength = in.readNBytes(head, 0, SNIFF_LENGTH);
+                contentType = sniffContentType(head, headLength);
+                if (!acceptType.test(contentType)) {
+                    return null;
+                }
+                out.write(head, 0, headLength);
+                size = headLength + in.transferTo(out);
+            }
+            try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            
+            String key = HexFormat.of().formatHex(digest.digest());
+            Path target = pathOf(key);
+            boolean existed = Files.exists(target);
+            if (existed) {
+                Files.delete(partial);
+            } else {
+                Files.createDirectories(target.getParent());
+                // A concurrent upload of the same bytes may win the rename; the content is identical either way
+                Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return new StoredBlob(key, size, contentType, existed);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
+    
+    public BlobInfo find(String key) {
+        if (key == null || !KEY.matcher(key).matches()) {
+            return null;
+        }
+        Path path = pathOf(key);
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] head = in.readNBytes(SNIFF_LENGTH);
+            return new BlobInfo(key, path, Files.size(path), sniffContentType(head, head.length));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Extracts the blob key from a stored reference, which may be the bare key or a {@code /files/{key}}
+     * URL as returned by the upload endpoint. Returns {@code null} if the reference holds no key.
+     */
+    public static String keyOf(String reference) {
+        if (reference == null) {
+            return null;
+        }
+        var matcher = KEY_SUFFIX.matcher(reference.trim());
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+    
+    public static String urlOf(String key) {
+        return "/files/" + key;
+    }
+    
+    private Path pathOf(String key) {
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+    
+    // The type is taken from the bytes rather than the client, and only types we are willing to render inline
+    // are recognised
+    private static String sniffContentType(byte[] head, int length) {
+        if (startsWith(head, length, 0xFF, 0xD8, 0xFF)) {
+            return "image/jpeg";
+        }
+        if (startsWith(head, length, 0x89, 'P', 'N', 'G')) {
+            return "image/png";
+        }
+        if (startsWith(head, length, 'G', 'I', 'F', '8')) {
+            return "image/gif";
+        }
+        if (startsWith(head, length, 'R', 'I', 'F', 'F') && length >= 12
+                && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') {
+            return "image/webp";
+        }
+        if (startsWith(head, length, '%', 'P', 'D', 'F')) {
+            return "application/pdf";
+        }
+        return "application/octet-stream";
+    }
+    
+    private static boolean startsWith(byte[] head, int length, int... prefix) {
+        if (length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if ((head[i] & 0xFF) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    public record StoredBlob(String key, long size, String contentType, boolean deduplicated) {
+    }
+    
+    public record BlobInfo(String key, Path path, long size, String contentType) {
+    }
+}
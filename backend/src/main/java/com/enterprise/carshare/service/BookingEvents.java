@@ -0,0 +1,34 @@
+package com.enterprise.carshare.service;
+
+import com.enterprise.carshare.domain.Booking;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class BookingEvents {
+    
+    public static final String AGGREGATE_TYPE = "Booking";
+    
+    public static final String APPROVED = "BookingApproved";
+    public static final String REJECTED = "BookingRejected";
+    public static final String CANCELLED = "BookingCancelled";
+    public static final String CHECKED_OUT = "BookingCheckedOut";
+    public static final String CHECKED_IN = "BookingCheckedIn";
+    public static final String EXPIRED = "BookingExpired";
+    public static final String OVERDUE = "BookingOverdue";
+    
+    private BookingEvents() {
+    }
+    
+    // Dates are written as ISO strings so handlers don't depend on the JSON date settings
+    static Map<String, Object> payload(Booking booking) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("bookingId", booking.getId());
+        payload.put("vehicleId", booking.getVehicle().getId());
+        payload.put("userId", booking.getUser().getId());
+        payload.put("status", booking.getStatus().name());
+        payload.put("startDateTime", booking.getStartDateTime().toString());
+        payload.put("endDateTime", booking.getEndDateTime().toString());
+        return payload;
+    }
+}
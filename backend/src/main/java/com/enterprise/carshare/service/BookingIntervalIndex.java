@@ -0,0 +1,322 @@
+package com.enterprise.carshare.service;
+
+import com.enterprise.carshare.repository.BookingIntervalView;
+import com.enterprise.carshare.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process index of the PENDING/APPROVED booking intervals of every vehicle, used to answer
+ * overlap checks without hitting the database. Each vehicle holds an immutable snapshot of
+ * start-sorted epoch-second arrays that writers replace atomically, so readers never lock.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+    
+    private final BookingRepository bookingRepository;
+    
+    private final Map<Long, VehicleIntervals> intervalsByVehicle = new ConcurrentHashMap<>();
+    
+    private volatile boolean loaded = false;
+    
+    @Value("${app.booking.interval-index.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.booking.interval-index.verify-with-database:false}")
+    private boolean verifyWithDatabase;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            log.info("Booking interval index disabled, overlap checks will query the database");
+            return;
+        }
+        
+        Map<Long, List<BookingIntervalView>> byVehicle = new HashMap<>();
+        for (BookingIntervalView interval : bookingRepository.findActiveIntervals()) {
+            byVehicle.computeIfAbsent(interval.getVehicleId(), k -> new ArrayList<>()).add(interval);
+        }
+        
+        byVehicle.forEach((vehicleId, intervals) -> intervalsByVehicle.merge(
+                vehicleId, VehicleIntervals.of(intervals), VehicleIntervals::union));
+        loaded = true;
+        log.info("Booking interval index loaded {} vehicles", byVehicle.size());
+    }
+    
+    public boolean isLoaded() {
+        return enabled && loaded;
+    }
+    
+    /**
+     * Whether the vehicle has an active booking overlapping {@code [start, end)}. Falls back to the
+     * database until the index is loaded, and confirms index hits there before reporting a conflict
+     * since the index only observes writes made by this node.
+     */
+    public boolean isBooked(Long vehicleId, LocalDateTime start, LocalDateTime end) {
+        if (!isLoaded()) {
+            return hasOverlapInDatabase(vehicleId, start, end);
+        }
+        
+        if (!hasOverlap(vehicleId, start, end)) {
+            return verifyWithDatabase && hasOverlapInDatabase(vehicleId, start, end);
+        }
+        
+        if (!hasOverlapInDatabase(vehicleId, start, end)) {
+            reload(vehicleId);
+            return false;
+        }
+        return true;
+    }
+    
+    public boolean hasOverlap(Long vehicleId, LocalDateTime start, LocalDateTime end) {
+        VehicleIntervals intervals = intervalsByVehicle.get(vehicleId);
+        return intervals != null && intervals.overlaps(toEpochSecond(start), toEpochSecond(end));
+    }
+    
+    /**
+     * Returns the subset of {@code vehicleIds} with no active booking overlapping {@code [start, end)},
+     * preserving order. One pass over the candidates, or one range query while the index is unavailable.
+     */
+    public List<Long> filterFree(List<Long> vehicleIds, LocalDateTime start, LocalDateTime end) {
+        if (!isLoaded() || verifyWithDatabase) {
+            Set<Long> booked = new HashSet<>(bookingRepository.findBookedVehicleIds(start, end));
+            return vehicleIds.stream().filter(id -> !booked.contains(id)).toList();
+        }
+        
+        long startSecond = toEpochSecond(start);
+        long endSecond = toEpochSecond(end);
+        List<Long> free = new ArrayList<>(vehicleIds.size());
+        for (Long vehicleId : vehicleIds) {
+            VehicleIntervals intervals = intervalsByVehicle.get(vehicleId);
+            if (intervals == null || !intervals.overlaps(startSecond, endSecond)) {
+                free.add(vehicleId);
+            }
+        }
+        return free;
+    }
+    
+    public void add(Long vehicleId, long entryId, LocalDateTime start, LocalDateTime end) {
+        long startSecond = toEpochSecond(start);
+        long endSecond = toEpochSecond(end);
+        intervalsByVehicle.compute(vehicleId, (k, current) ->
+                (current != null ? current : VehicleIntervals.EMPTY).with(entryId, startSecond, endSecond));
+    }
+    
+    public void remove(Long vehicleId, long entryId) {
+        intervalsByVehicle.computeIfPresent(vehicleId, (k, current) -> current.without(entryId));
+    }
+    
+    public void addAfterCommit(Long vehicleId, long entryId, LocalDateTime start, LocalDateTime end) {
+        runAfterCommit(() -> add(vehicleId, entryId, start, end));
+    }
+    
+    public void removeAfterCommit(Long vehicleId, long entryId) {
+        runAfterCommit(() -> remove(vehicleId, entryId));
+    }
+    
+    public void reload(Long vehicleId) {
+        List<BookingIntervalView> intervals = bookingRepository.findActiveIntervalsByVehicleId(vehicleId);
+        if (intervals.isEmpty()) {
+            intervalsByVehicle.remove(vehicleId);
+        } else {
+            intervalsByVehicle.put(vehicleId, VehicleIntervals.of(intervals));
+        }
+    }
+    
+    private boolean hasOverlapInDatabase(Long vehicleId, LocalDateTime start, LocalDateTime end) {
+        return !bookingRepository.findOverlappingBookings(vehicleId, start, end).isEmpty();
+    }
+    
+    private void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
+    static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+    
+    static final class VehicleIntervals {
+        
+        static final VehicleIntervals EMPTY = new VehicleIntervals(new long[0], new long[0], new long[0], new long[0]);
+        
+        private final long[] ids;
+        private final long[] starts;
+        private final long[] ends;
+        // maxEnds[i] is the latest end among intervals 0..i, so one binary search answers overlap
+        // queries even if legacy rows overlap each other
+        private final long[] maxEnds;
+        
+        private VehicleIntervals(long[] ids, long[] starts, long[] ends, long[] maxEnds) {
+            this.ids = ids;
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnds = maxEnds;
+        }
+        
+        // Takes ownership of the arrays, which must already be sorted by start
+        private static VehicleIntervals sorted(long[] ids, long[] starts, long[] ends) {
+            long[] maxEnds = new long[ends.length];
+            fillMaxEnds(ends, maxEnds, 0);
+            return new VehicleIntervals(ids, starts, ends, maxEnds);
+        }
+        
+        // Entries before from are unchanged, so only the suffix needs its running maximum redone
+        private static void fillMaxEnds(long[] ends, long[] maxEnds, int from) {
+            long max = from == 0 ? Long.MIN_VALUE : maxEnds[from - 1];
+            for (int i = from; i < ends.length; i++) {
+                max = Math.max(max, ends[i]);
+                maxEnds[i] = max;
+            }
+        }
+        
+        static VehicleIntervals of(List<BookingIntervalView> intervals) {
+            if (intervals.isEmpty()) {
+                return EMPTY;
+            }
+            List<BookingIntervalView> byStart = new ArrayList<>(intervals);
+            byStart.sort(Comparator.comparing(BookingIntervalView::getStartDateTime));
+            int n = byStart.size();
+            long[] ids = new long[n];
+            long[] starts = new long[n];
+            long[] ends = new long[n];
+            for (int i = 0; i < n; i++) {
+                BookingIntervalView interval = byStart.get(i);
+                ids[i] = interval.getId();
+                starts[i] = toEpochSecond(interval.getStartDateTime());
+                ends[i] = toEpochSecond(interval.getEndDateTime());
+            }
+            return sorted(ids, starts, ends);
+        }
+        
+        // Entries of b replace entries of a with the same id; both sides are merged in one pass
+        static VehicleIntervals union(VehicleIntervals a, VehicleIntervals b) {
+            if (a.ids.length == 0) {
+                return b;
+            }
+            if (b.ids.length == 0) {
+                return a;
+            }
+            Set<Long> replaced = new HashSet<>();
+            for (long id : b.ids) {
+                replaced.add(id);
+            }
+            
+            int capacity = a.ids.length + b.ids.length;
+            long[] newIds = new long[capacity];
+            long[] newStarts = new long[capacity];
+            long[] newEnds = new long[capacity];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < a.ids.length || j < b.ids.length) {
+                if (i < a.ids.length && replaced.contains(a.ids[i])) {
+                    i++;
+                    continue;
+                }
+                boolean fromA = j == b.ids.length || (i < a.ids.length && a.starts[i] < b.starts[j]);
+                VehicleIntervals source = fromA ? a : b;
+                int index = fromA ? i++ : j++;
+                newIds[n] = source.ids[index];
+                newStarts[n] = source.starts[index];
+                newEnds[n] = source.ends[index];
+                n++;
+            }
+            return sorted(Arrays.copyOf(newIds, n), Arrays.copyOf(newStarts, n), Arrays.copyOf(newEnds, n));
+        }
+        
+        boolean overlaps(long start, long end) {
+            int candidate = firstStartAtOrAfter(end) - 1;
+            return candidate >= 0 && maxEnds[candidate] > start;
+        }
+        
+        VehicleIntervals with(long id, long start, long end) {
+            VehicleIntervals base = without(id);
+            int n = base.ids.length;
+            int pos = base.firstStartAtOrAfter(start);
+            
+            long[] newIds = new long[n + 1];
+            long[] newStarts = new long[n + 1];
+            long[] newEnds = new long[n + 1];
+            long[] newMaxEnds = new long[n + 1];
+            System.arraycopy(base.ids, 0, newIds, 0, pos);
+            System.arraycopy(base.starts, 0, newStarts, 0, pos);
+            System.arraycopy(base.ends, 0, newEnds, 0, pos);
+            System.arraycopy(base.maxEnds, 0, newMaxEnds, 0, pos);
+            newIds[pos] = id;
+            newStarts[pos] = start;
+            newEnds[pos] = end;
+            System.arraycopy(base.ids, pos, newIds, pos + 1, n - pos);
+            System.arraycopy(base.starts, pos, newStarts, pos + 1, n - pos);
+            System.arraycopy(base.ends, pos, newEnds, pos + 1, n - pos);
+            fillMaxEnds(newEnds, newMaxEnds, pos);
+            return new VehicleIntervals(newIds, newStarts, newEnds, newMaxEnds);
+        }
+        
+        VehicleIntervals without(long id) {
+            int index = -1;
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return this;
+            }
+            
+            int n = ids.length;
+            long[] newIds = Arrays.copyOf(ids, n - 1);
+            long[] newStarts = Arrays.copyOf(starts, n - 1);
+            long[] newEnds = Arrays.copyOf(ends, n - 1);
+            long[] newMaxEnds = Arrays.copyOf(maxEnds, n - 1);
+            System.arraycopy(ids, index + 1, newIds, index, n - index - 1);
+            System.arraycopy(starts, index + 1, newStarts, index, n - index - 1);
+            System.arraycopy(ends, index + 1, newEnds, index, n - index - 1);
+            fillMaxEnds(newEnds, newMaxEnds, index);
+            return new VehicleIntervals(newIds, newStarts, newEnds, newMaxEnds);
+        }
+        
+        private int firstStartAtOrAfter(long value) {
+            int low = 0;
+            int high = starts.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
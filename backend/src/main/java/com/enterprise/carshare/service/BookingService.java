@@ -5,50 +5,88 @@ import com.enterprise.carshare.domain.BookingUsage;
 import com.enterprise.carshare.domain.User;
 import com.enterprise.carshare.domain.Vehicle;
 import com.enterprise.carshare.dto.*;
-import com.enterprise.carshare.mapper.BookingMapper;
-import com.enterprise.carshare.mapper.VehicleMapper;
+import com.enterprise.carshare.exception.BookingConflictException;
+import com.enterprise.carshare.mapper.BookingDetailsMapper;
+import com.enterprise.carshare.repository.BookingIntervalView;
 import com.enterprise.carshare.repository.BookingRepository;
 import com.enterprise.carshare.repository.BookingUsageRepository;
+import com.enterprise.carshare.repository.MaintenanceTaskRepository;
 import com.enterprise.carshare.repository.UserRepository;
 import com.enterprise.carshare.repository.VehicleRepository;
+import com.enterprise.carshare.repository.VersionView;
+import com.enterprise.carshare.util.ETags;
+import com.enterprise.carshare.util.PageCursor;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "carshare.service", histogram = true)
 public class BookingService {
     
     private final BookingRepository bookingRepository;
     private final VehicleRepository vehicleRepository;
     private final UserRepository userRepository;
     private final BookingUsageRepository bookingUsageRepository;
-    private final BookingMapper bookingMapper;
-    private final VehicleMapper vehicleMapper;
+    private final MaintenanceTaskRepository maintenanceTaskRepository;
+    private final BookingDetailsMapper bookingDetailsMapper;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final VehicleLocks vehicleLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    
+    @Value("${app.booking.batch.max-size:500}")
+    private int maxBatchSize;
     
-    @Transactional
     public BookingDto createBooking(Long userId, BookingCreateRequest request) {
+        // Hold the vehicle lock until the transaction has committed so concurrent requests
+        // for the same vehicle see each other's bookings
+        return vehicleLocks.withLock(request.getVehicleId(),
+                () -> transactionTemplate.execute(status -> admitBooking(userId, request)));
+    }
+    
+    private BookingDto admitBooking(Long userId, BookingCreateRequest request) {
         Vehicle vehicle = vehicleRepository.findById(request.getVehicleId())
                 .orElseThrow(() -> new RuntimeException("Vehicle not found"));
         
-        if (vehicle.getStatus() != Vehicle.VehicleStatus.AVAILABLE) {
+        if (!vehicle.getStatus().isBookable()) {
             throw new RuntimeException("Vehicle is not available for booking");
         }
         
         // Check for overlapping bookings
-        List<Booking> overlapping = bookingRepository.findOverlappingBookings(
-                request.getVehicleId(), request.getStartDateTime(), request.getEndDateTime());
+        if (bookingIntervalIndex.isBooked(
+                request.getVehicleId(), request.getStartDateTime(), request.getEndDateTime())) {
+            throw new BookingConflictException("Vehicle is already booked for the selected time period");
+        }
         
-        if (!overlapping.isEmpty()) {
-            throw new RuntimeException("Vehicle is already booked for the selected time period");
+        if (maintenanceTaskRepository.existsOpenPlannedBetween(request.getVehicleId(),
+                request.getStartDateTime().toLocalDate(), lastDayOf(request.getEndDateTime()))) {
+            throw new BookingConflictException("Vehicle is scheduled for maintenance during the selected time period");
         }
         
         // Validate booking dates
@@ -75,8 +113,174 @@ public class BookingService {
                 .approvalRequired(determineApprovalRequired(user))
                 .build();
         
-        booking = bookingRepository.save(booking);
-        return mapToDtoWithDetails(booking);
+        try {
+            booking = bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                throw new BookingConflictException("Vehicle is already booked for the selected time period", e);
+            }
+            throw e;
+        }
+        bookingIntervalIndex.addAfterCommit(
+                vehicle.getId(), booking.getId(), booking.getStartDateTime(), booking.getEndDateTime());
+        return bookingDetailsMapper.toDto(booking);
+    }
+    
+    public BookingBatchResponse createBookings(Long userId, BookingBatchRequest request) {
+        List<BookingSlot> slots = expandSlots(request);
+        return vehicleLocks.withLock(request.getVehicleId(),
+                () -> transactionTemplate.execute(status -> admitBookings(userId, request, slots)));
+    }
+    
+    private BookingBatchResponse admitBookings(Long userId, BookingBatchRequest request, List<BookingSlot> slots) {
+        Vehicle vehicle = vehicleRepository.findById(request.getVehicleId())
+                .orElseThrow(() -> new RuntimeException("Vehicle not found"));
+        
+        if (!vehicle.getStatus().isBookable()) {
+            throw new RuntimeException("Vehicle is not available for booking");
+        }
+        
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        
+        // A single range read covers every slot; accepted slots are added to it so the batch
+        // cannot overlap itself either
+        LocalDateTime from = slots.stream().map(BookingSlot::getStartDateTime)
+                .min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime to = slots.stream().map(BookingSlot::getEndDateTime)
+                .max(Comparator.naturalOrder()).orElseThrow();
+        BookingIntervalIndex.VehicleIntervals occupied = BookingIntervalIndex.VehicleIntervals.of(
+                bookingRepository.findActiveIntervalsInRange(vehicle.getId(), from, to));
+        Set<LocalDate> maintenanceDates = new HashSet<>(maintenanceTaskRepository.findOpenPlannedDatesBetween(
+                vehicle.getId(), from.toLocalDate(), lastDayOf(to)));
+        
+        BookingBatchRequest.BatchMode mode = request.getMode() == BookingBatchRequest.BatchMode.BEST_EFFORT
+                ? BookingBatchRequest.BatchMode.BEST_EFFORT
+                : BookingBatchRequest.BatchMode.ALL_OR_NOTHING;
+        boolean approvalRequired = determineApprovalRequired(user);
+        LocalDateTime now = LocalDateTime.now();
+        
+        List<BookingBatchItemResult> results = new ArrayList<>(slots.size());
+        List<BookingBatchItemResult> acceptedResults = new ArrayList<>();
+        List<Booking> accepted = new ArrayList<>();
+        
+        for (int i = 0; i < slots.size(); i++) {
+            BookingSlot slot = slots.get(i);
+            BookingBatchItemResult result = BookingBatchItemResult.builder()
+                    .index(i)
+                    .startDateTime(slot.getStartDateTime())
+                    .endDateTime(slot.getEndDateTime())
+                    .build();
+            results.add(result);
+            
+            if (!slot.getEndDateTime().isAfter(slot.getStartDateTime())) {
+                result.setStatus(BookingBatchItemResult.ItemStatus.INVALID);
+                result.setMessage("End date must be after start date");
+                continue;
+            }
+            
+            if (slot.getStartDateTime().isBefore(now)) {
+                result.setStatus(BookingBatchItemResult.ItemStatus.INVALID);
+                result.setMessage("Start date must be in the future");
+                continue;
+            }
+            
+            long start = BookingIntervalIndex.toEpochSecond(slot.getStartDateTime());
+            long end = BookingIntervalIndex.toEpochSecond(slot.getEndDateTime());
+            if (occupied.overlaps(start, end)) {
+                result.setStatus(BookingBatchItemResult.ItemStatus.CONFLICT);
+                result.setMessage("Vehicle is already booked for the selected time period");
+                continue;
+            }
+            
+            if (coversAny(maintenanceDates, slot.getStartDateTime(), slot.getEndDateTime())) {
+                result.setStatus(BookingBatchItemResult.ItemStatus.CONFLICT);
+                result.setMessage("Vehicle is scheduled for maintenance during the selected time period");
+                continue;
+            }
+            
+            occupied = occupied.with(-(i + 1), start, end);
+            acceptedResults.add(result);
+            accepted.add(Booking.builder()
+                    .vehicle(vehicle)
+                    .user(user)
+                    .startDateTime(slot.getStartDateTime())
+                    .endDateTime(slot.getEndDateTime())
+                    .pickupLocation(request.getPickupLocation())
+                    .returnLocation(request.getReturnLocation())
+                    .purpose(request.getPurpose())
+                    .status(Booking.BookingStatus.PENDING)
+                    .approvalRequired(approvalRequired)
+                    .build());
+        }
+        
+        int failed = slots.size() - accepted.size();
+        if (failed > 0 && mode == BookingBatchRequest.BatchMode.ALL_OR_NOTHING) {
+            for (BookingBatchItemResult result : acceptedResults) {
+                result.setStatus(BookingBatchItemResult.ItemStatus.SKIPPED);
+                result.setMessage("Not created because other slots in the batch failed");
+            }
+            accepted.clear();
+        }
+        
+        try {
+            bookingRepository.insertAll(accepted);
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                throw new BookingConflictException("Vehicle is already booked for the selected time period", e);
+            }
+            throw e;
+        }
+        
+        for (int i = 0; i < accepted.size(); i++) {
+            Booking booking = accepted.get(i);
+            acceptedResults.get(i).setStatus(BookingBatchItemResult.ItemStatus.CREATED);
+            acceptedResults.get(i).setBookingId(booking.getId());
+            bookingIntervalIndex.addAfterCommit(
+                    vehicle.getId(), booking.getId(), booking.getStartDateTime(), booking.getEndDateTime());
+        }
+        
+        return BookingBatchResponse.builder()
+                .mode(mode)
+                .requested(slots.size())
+                .created(accepted.size())
+                .failed(failed)
+                .results(results)
+                .build();
+    }
+    
+    private List<BookingSlot> expandSlots(BookingBatchRequest request) {
+        boolean hasSlots = request.getSlots() != null && !request.getSlots().isEmpty();
+        if (hasSlots == (request.getRecurrence() != null)) {
+            throw new RuntimeException("Provide either a list of slots or a recurrence rule");
+        }
+        
+        List<BookingSlot> slots = hasSlots ? request.getSlots() : expandRecurrence(request.getRecurrence());
+        if (slots.isEmpty()) {
+            throw new RuntimeException("Recurrence rule does not produce any bookings");
+        }
+        if (slots.size() > maxBatchSize) {
+            throw new RuntimeException("A batch may contain at most " + maxBatchSize + " bookings");
+        }
+        return slots;
+    }
+    
+    private List<BookingSlot> expandRecurrence(BookingRecurrence recurrence) {
+        if (recurrence.getEndDate().isBefore(recurrence.getStartDate())) {
+            throw new RuntimeException("Recurrence end date must not be before its start date");
+        }
+        
+        boolean overnight = !recurrence.getEndTime().isAfter(recurrence.getStartTime());
+        List<BookingSlot> slots = new ArrayList<>();
+        for (LocalDate date = recurrence.getStartDate();
+             !date.isAfter(recurrence.getEndDate()) && slots.size() <= maxBatchSize;
+             date = date.plusDays(1)) {
+            if (recurrence.getDaysOfWeek().contains(date.getDayOfWeek())) {
+                LocalDate endDate = overnight ? date.plusDays(1) : date;
+                slots.add(new BookingSlot(date.atTime(recurrence.getStartTime()), endDate.atTime(recurrence.getEndTime())));
+            }
+        }
+        return slots;
     }
     
     private boolean determineApprovalRequired(User user) {
@@ -85,12 +289,37 @@ public class BookingService {
         return user.getRole() == User.Role.ROLE_EMPLOYEE;
     }
     
+    private static boolean isOverlapViolation(Throwable e) {
+        // 23P01 = exclusion_violation, raised by excl_bookings_vehicle_period
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && "23P01".equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    // Planned maintenance takes the vehicle out for the whole day; a booking ending at midnight
+    // does not reach into the next day
+    private static LocalDate lastDayOf(LocalDateTime end) {
+        return end.minusNanos(1).toLocalDate();
+    }
+    
+    private static boolean coversAny(Set<LocalDate> dates, LocalDateTime start, LocalDateTime end) {
+        for (LocalDate date : dates) {
+            if (!date.isBefore(start.toLocalDate()) && !date.isAfter(lastDayOf(end))) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
     public PageResponse<BookingDto> getUserBookings(Long userId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("startDateTime").descending());
-        Page<Booking> bookingPage = bookingRepository.findByUserId(userId, pageable);
+        Page<Booking> bookingPage = bookingRepository.findDetailedByUserId(userId, pageable);
         
         List<BookingDto> content = bookingPage.getContent().stream()
-                .map(this::mapToDtoWithDetails)
+                .map(bookingDetailsMapper::toDto)
                 .toList();
         
         return PageResponse.<BookingDto>builder()
@@ -107,11 +336,11 @@ public class BookingService {
     public PageResponse<BookingDto> getAllBookings(int page, int size, Booking.BookingStatus status) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("startDateTime").descending());
         Page<Booking> bookingPage = status != null
-                ? bookingRepository.findByStatus(status, pageable)
-                : bookingRepository.findAll(pageable);
+                ? bookingRepository.findDetailedByStatus(status, pageable)
+                : bookingRepository.findAllDetailed(pageable);
         
         List<BookingDto> content = bookingPage.getContent().stream()
-                .map(this::mapToDtoWithDetails)
+                .map(bookingDetailsMapper::toDto)
                 .toList();
         
         return PageResponse.<BookingDto>builder()
@@ -125,54 +354,69 @@ public class BookingService {
                 .build();
     }
     
-    public BookingDto getBookingById(Long id) {
-        Booking booking = bookingRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Booking not found"));
-        return mapToDtoWithDetails(booking);
+    public CursorPageResponse<BookingDto> getUserBookingsAfter(
+            Long userId, String after, int limit, boolean includeTotal) {
+        PageCursor cursor = after != null ? PageCursor.decode(after) : null;
+        int pageLimit = PageCursor.clampLimit(limit);
+        
+        List<Booking> rows = bookingRepository.findDetailedByUserIdBefore(
+                userId, seekStartDateTime(cursor), seekId(cursor), PageRequest.of(0, pageLimit + 1));
+        Long total = includeTotal ? bookingRepository.countByUserId(userId) : null;
+        
+        return CursorPageResponse.of(rows, pageLimit, bookingDetailsMapper::toDto, this::cursorOf, total);
     }
     
-    private BookingDto mapToDtoWithDetails(Booking booking) {
-        BookingDto dto = bookingMapper.toDto(booking);
-        
-        // Map vehicle
-        if (booking.getVehicle() != null) {
-            dto.setVehicle(vehicleMapper.toDto(booking.getVehicle()));
-        }
-        
-        // Map approver email
-        if (booking.getApprover() != null) {
-            dto.setApproverEmail(booking.getApprover().getEmail());
-        }
-        
-        // Map usage
-        if (booking.getUsage() != null) {
-            BookingUsage usage = booking.getUsage();
-            BookingUsageDto usageDto = BookingUsageDto.builder()
-                    .id(usage.getId())
-                    .bookingId(booking.getId())
-                    .startMileage(usage.getStartMileage())
-                    .endMileage(usage.getEndMileage())
-                    .startFuelLevel(usage.getStartFuelLevel())
-                    .endFuelLevel(usage.getEndFuelLevel())
-                    .distanceTravelled(usage.getDistanceTravelled())
-                    .damageReported(usage.getDamageReported())
-                    .damageDescription(usage.getDamageDescription())
-                    .preTripPhotos(usage.getPreTripPhotos())
-                    .postTripPhotos(usage.getPostTripPhotos())
-                    .checkoutComments(usage.getCheckoutComments())
-                    .checkinComments(usage.getCheckinComments())
-                    .checkedOutAt(usage.getCheckedOutAt())
-                    .checkedInAt(usage.getCheckedInAt())
-                    .build();
-            dto.setUsage(usageDto);
+    public CursorPageResponse<BookingDto> getAllBookingsAfter(
+            String after, int limit, Booking.BookingStatus status, boolean includeTotal) {
+        PageCursor cursor = after != null ? PageCursor.decode(after) : null;
+        int pageLimit = PageCursor.clampLimit(limit);
+        Pageable pageable = PageRequest.of(0, pageLimit + 1);
+        
+        List<Booking> rows = status != null
+                ? bookingRepository.findDetailedByStatusBefore(
+                        status, seekStartDateTime(cursor), seekId(cursor), pageable)
+                : bookingRepository.findAllDetailedBefore(seekStartDateTime(cursor), seekId(cursor), pageable);
+        Long total = null;
+        if (includeTotal) {
+            total = status != null ? bookingRepository.countByStatus(status) : bookingRepository.count();
         }
         
-        return dto;
+        return CursorPageResponse.of(rows, pageLimit, bookingDetailsMapper::toDto, this::cursorOf, total);
+    }
+    
+    private LocalDateTime seekStartDateTime(PageCursor cursor) {
+        return cursor != null ? cursor.dateTimeKey() : PageCursor.LATEST;
+    }
+    
+    private Long seekId(PageCursor cursor) {
+        return cursor != null ? cursor.getId() : Long.MAX_VALUE;
+    }
+    
+    private String cursorOf(Booking booking) {
+        return PageCursor.encode(booking.getStartDateTime(), booking.getId());
+    }
+    
+    public BookingDto getBookingById(Long id) {
+        Booking booking = bookingRepository.findDetailedById(id)
+                .orElseThrow(() -> new RuntimeException("Booking not found"));
+        return bookingDetailsMapper.toDto(booking);
+    }
+    
+    // Null when the booking does not exist
+    public String getBookingETag(Long id) {
+        VersionView version = bookingRepository.findVersionById(id);
+        return version.getTotal() > 0 ? ETags.of("booking", id, version.getChecksum()) : null;
+    }
+    
+    // Covers every page of the user's bookings; the user is part of the tag as the URL is shared
+    public String getUserBookingsETag(Long userId) {
+        VersionView version = bookingRepository.findVersionByUserId(userId);
+        return ETags.of("user-bookings", userId, version.getTotal(), version.getChecksum());
     }
     
     @Transactional
     public BookingDto approveBooking(Long bookingId, Long approverId) {
-        Booking booking = bookingRepository.findById(bookingId)
+        Booking booking = bookingRepository.lockById(bookingId)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
         
         User approver = userRepository.findById(approverId)
@@ -185,17 +429,20 @@ public class BookingService {
         booking.setStatus(Booking.BookingStatus.APPROVED);
         booking.setApprover(approver);
         booking = bookingRepository.save(booking);
+        bookingIntervalIndex.addAfterCommit(booking.getVehicle().getId(), booking.getId(),
+                booking.getStartDateTime(), booking.getEndDateTime());
         
         // Update vehicle status
         booking.getVehicle().setStatus(Vehicle.VehicleStatus.IN_USE);
         vehicleRepository.save(booking.getVehicle());
+        publishEvent(BookingEvents.APPROVED, booking, BookingEvents.payload(booking));
         
-        return mapToDtoWithDetails(booking);
+        return bookingDetailsMapper.toDto(booking);
     }
     
     @Transactional
     public BookingDto rejectBooking(Long bookingId, Long approverId) {
-        Booking booking = bookingRepository.findById(bookingId)
+        Booking booking = bookingRepository.lockById(bookingId)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
         
         User approver = userRepository.findById(approverId)
@@ -208,13 +455,164 @@ public class BookingService {
         booking.setStatus(Booking.BookingStatus.REJECTED);
         booking.setApprover(approver);
         booking = bookingRepository.save(booking);
+        bookingIntervalIndex.removeAfterCommit(booking.getVehicle().getId(), booking.getId());
+        publishEvent(BookingEvents.REJECTED, booking, BookingEvents.payload(booking));
+        
+        return bookingDetailsMapper.toDto(booking);
+    }
+    
+    public BookingApprovalResponse decideBookings(Long approverId, BookingApprovalRequest request) {
+        List<BookingDecision> decisions = request.getDecisions();
+        if (decisions.size() > maxBatchSize) {
+            throw new RuntimeException("A batch may contain at most " + maxBatchSize + " decisions");
+        }
+        
+        Set<Long> bookingIds = decisions.stream().map(BookingDecision::getBookingId).collect(Collectors.toSet());
+        // A booking never changes vehicle, so the vehicles can be locked before the bookings are read
+        List<Long> vehicleIds = bookingRepository.findVehicleIdsByIdIn(bookingIds);
+        return vehicleLocks.withLocks(vehicleIds,
+                () -> transactionTemplate.execute(status -> applyDecisions(approverId, decisions, bookingIds)));
+    }
+    
+    private BookingApprovalResponse applyDecisions(Long approverId, List<BookingDecision> decisions, Set<Long> bookingIds) {
+        User approver = userRepository.findById(approverId)
+                .orElseThrow(() -> new RuntimeException("Approver not found"));
+        
+        Map<Long, Booking> bookings = bookingRepository.findWithVehicleByIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        Map<Long, BookingIntervalIndex.VehicleIntervals> approvedByVehicle = loadApprovedIntervals(decisions, bookings);
         
-        return mapToDtoWithDetails(booking);
+        List<BookingApprovalResult> results = new ArrayList<>(decisions.size());
+        List<Booking> approved = new ArrayList<>();
+        List<Booking> rejected = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        
+        for (BookingDecision decision : decisions) {
+            BookingApprovalResult result = BookingApprovalResult.builder()
+                    .bookingId(decision.getBookingId())
+                    .decision(decision.getDecision())
+                    .build();
+            results.add(result);
+            
+            Booking booking = bookings.get(decision.getBookingId());
+            if (!seen.add(decision.getBookingId())) {
+                result.setStatus(BookingApprovalResult.ItemStatus.INVALID);
+                result.setMessage("Booking is listed more than once");
+                continue;
+            }
+            
+            if (booking == null) {
+                result.setStatus(BookingApprovalResult.ItemStatus.NOT_FOUND);
+                result.setMessage("Booking not found");
+                continue;
+            }
+            
+            boolean approve = decision.getDecision() == BookingDecision.Decision.APPROVE;
+            if (booking.getStatus() != Booking.BookingStatus.PENDING) {
+                result.setStatus(BookingApprovalResult.ItemStatus.INVALID);
+                result.setMessage(approve
+                        ? "Only pending bookings can be approved"
+                        : "Only pending bookings can be rejected");
+                continue;
+            }
+            
+            if (!approve) {
+                rejected.add(booking);
+                result.setStatus(BookingApprovalResult.ItemStatus.REJECTED);
+                continue;
+            }
+            
+            // Re-verify against approved bookings, including those approved earlier in this batch
+            Long vehicleId = booking.getVehicle().getId();
+            long start = BookingIntervalIndex.toEpochSecond(booking.getStartDateTime());
+            long end = BookingIntervalIndex.toEpochSecond(booking.getEndDateTime());
+            BookingIntervalIndex.VehicleIntervals occupied =
+                    approvedByVehicle.getOrDefault(vehicleId, BookingIntervalIndex.VehicleIntervals.EMPTY);
+            if (occupied.overlaps(start, end)) {
+                result.setStatus(BookingApprovalResult.ItemStatus.CONFLICT);
+                result.setMessage("Vehicle is already booked for the selected time period");
+                continue;
+            }
+            
+            approvedByVehicle.put(vehicleId, occupied.with(booking.getId(), start, end));
+            approved.add(booking);
+            result.setStatus(BookingApprovalResult.ItemStatus.APPROVED);
+        }
+        
+        // Vehicle status goes through the managed entities so the updates are batched and their
+        // second-level cache entries stay valid; the bookings change with one statement per decision
+        for (Booking booking : approved) {
+            booking.getVehicle().setStatus(Vehicle.VehicleStatus.IN_USE);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        applyStatus(approved, Booking.BookingStatus.APPROVED, approver, now);
+        applyStatus(rejected, Booking.BookingStatus.REJECTED, approver, now);
+        
+        for (Booking booking : approved) {
+            bookingIntervalIndex.addAfterCommit(booking.getVehicle().getId(), booking.getId(),
+                    booking.getStartDateTime(), booking.getEndDateTime());
+            publishEvent(BookingEvents.APPROVED, booking, BookingEvents.payload(booking));
+        }
+        for (Booking booking : rejected) {
+            bookingIntervalIndex.removeAfterCommit(booking.getVehicle().getId(), booking.getId());
+            publishEvent(BookingEvents.REJECTED, booking, BookingEvents.payload(booking));
+        }
+        
+        return BookingApprovalResponse.builder()
+                .requested(decisions.size())
+                .approved(approved.size())
+                .rejected(rejected.size())
+                .failed(decisions.size() - approved.size() - rejected.size())
+                .results(results)
+                .build();
+    }
+    
+    private Map<Long, BookingIntervalIndex.VehicleIntervals> loadApprovedIntervals(
+            List<BookingDecision> decisions, Map<Long, Booking> bookings) {
+        List<Booking> candidates = decisions.stream()
+                .filter(decision -> decision.getDecision() == BookingDecision.Decision.APPROVE)
+                .map(decision -> bookings.get(decision.getBookingId()))
+                .filter(booking -> booking != null && booking.getStatus() == Booking.BookingStatus.PENDING)
+                .toList();
+        Map<Long, BookingIntervalIndex.VehicleIntervals> approvedByVehicle = new HashMap<>();
+        if (candidates.isEmpty()) {
+            return approvedByVehicle;
+        }
+        
+        // One range read covering every candidate
+        Set<Long> vehicleIds = candidates.stream().map(booking -> booking.getVehicle().getId()).collect(Collectors.toSet());
+        LocalDateTime from = candidates.stream().map(Booking::getStartDateTime)
+                .min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime to = candidates.stream().map(Booking::getEndDateTime)
+                .max(Comparator.naturalOrder()).orElseThrow();
+        bookingRepository.findApprovedIntervalsInRange(vehicleIds, from, to).stream()
+                .collect(Collectors.groupingBy(BookingIntervalView::getVehicleId))
+                .forEach((vehicleId, intervals) ->
+                        approvedByVehicle.put(vehicleId, BookingIntervalIndex.VehicleIntervals.of(intervals)));
+        return approvedByVehicle;
+    }
+    
+    private void applyStatus(List<Booking> bookings, Booking.BookingStatus status, User approver, LocalDateTime now) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        
+        List<Long> ids = bookings.stream().map(Booking::getId).toList();
+        if (bookingRepository.decidePending(ids, status, approver, now) != ids.size()) {
+            // Rolls back the whole batch
+            throw new BookingConflictException("Some bookings changed while being decided, please retry");
+        }
+        // The bulk update detached the entities; mirror it on them for the events
+        for (Booking booking : bookings) {
+            booking.setStatus(status);
+            booking.setApprover(approver);
+            booking.setUpdatedAt(now);
+        }
     }
     
     @Transactional
     public BookingDto cancelBooking(Long bookingId, Long userId) {
-        Booking booking = bookingRepository.findById(bookingId)
+        Booking booking = bookingRepository.lockById(bookingId)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
         
         if (!booking.getUser().getId().equals(userId)) {
@@ -224,12 +622,16 @@ public class BookingService {
         if (booking.getStatus() == Booking.BookingStatus.COMPLETED) {
             throw new RuntimeException("Cannot cancel completed booking");
         }
+        if (booking.getStatus() == Booking.BookingStatus.EXPIRED) {
+            throw new RuntimeException("Cannot cancel expired booking");
+        }
         
         // Store original status before updating
         Booking.BookingStatus originalStatus = booking.getStatus();
         
         booking.setStatus(Booking.BookingStatus.CANCELLED);
         booking = bookingRepository.save(booking);
+        bookingIntervalIndex.removeAfterCommit(booking.getVehicle().getId(), booking.getId());
         
         // Update vehicle status if it was approved
         if (originalStatus == Booking.BookingStatus.APPROVED) {
@@ -237,12 +639,16 @@ public class BookingService {
             vehicleRepository.save(booking.getVehicle());
         }
         
-        return mapToDtoWithDetails(booking);
+        Map<String, Object> payload = BookingEvents.payload(booking);
+        payload.put("previousStatus", originalStatus.name());
+        publishEvent(BookingEvents.CANCELLED, booking, payload);
+        
+        return bookingDetailsMapper.toDto(booking);
     }
     
     @Transactional
     public BookingUsageDto checkout(Long bookingId, CheckoutRequest request) {
-        Booking booking = bookingRepository.findById(bookingId)
+        Booking booking = bookingRepository.lockById(bookingId)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
         
         if (booking.getStatus() != Booking.BookingStatus.APPROVED) {
@@ -264,12 +670,18 @@ public class BookingService {
         booking.getVehicle().setCurrentMileage(request.getStartMileage());
         vehicleRepository.save(booking.getVehicle());
         
-        return mapToUsageDto(usage);
+        Map<String, Object> payload = BookingEvents.payload(booking);
+        payload.put("startMileage", usage.getStartMileage());
+        payload.put("checkedOutAt", usage.getCheckedOutAt().toString());
+        payload.put("photos", usage.getPreTripPhotos());
+        publishEvent(BookingEvents.CHECKED_OUT, booking, payload);
+        
+        return bookingDetailsMapper.toUsageDto(usage);
     }
     
     @Transactional
     public BookingUsageDto checkin(Long bookingId, CheckinRequest request) {
-        Booking booking = bookingRepository.findById(bookingId)
+        Booking booking = bookingRepository.lockById(bookingId)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
         
         BookingUsage usage = bookingUsageRepository.findByBookingId(bookingId)
@@ -303,28 +715,22 @@ public class BookingService {
         // Mark booking as completed
         booking.setStatus(Booking.BookingStatus.COMPLETED);
         bookingRepository.save(booking);
-        
-        return mapToUsageDto(usage);
+        bookingIntervalIndex.removeAfterCommit(vehicle.getId(), booking.getId());
+        
+        // The report rollup and trip photo thumbnails are produced from this event by outbox handlers
+        Map<String, Object> payload = BookingEvents.payload(booking);
+        payload.put("endMileage", usage.getEndMileage());
+        payload.put("distanceTravelled", usage.getDistanceTravelled());
+        payload.put("damageReported", usage.getDamageReported());
+        payload.put("photos", usage.getPostTripPhotos());
+        payload.put("usageDate", booking.getStartDateTime().toLocalDate().toString());
+        publishEvent(BookingEvents.CHECKED_IN, booking, payload);
+        
+        return bookingDetailsMapper.toUsageDto(usage);
     }
     
-    private BookingUsageDto mapToUsageDto(BookingUsage usage) {
-        return BookingUsageDto.builder()
-                .id(usage.getId())
-                .bookingId(usage.getBooking().getId())
-                .startMileage(usage.getStartMileage())
-                .endMileage(usage.getEndMileage())
-                .startFuelLevel(usage.getStartFuelLevel())
-                .endFuelLevel(usage.getEndFuelLevel())
-                .distanceTravelled(usage.getDistanceTravelled())
-                .damageReported(usage.getDamageReported())
-                .damageDescription(usage.getDamageDescription())
-                .preTripPhotos(usage.getPreTripPhotos())
-                .postTripPhotos(usage.getPostTripPhotos())
-                .checkoutComments(usage.getCheckoutComments())
-                .checkinComments(usage.getCheckinComments())
-                .checkedOutAt(usage.getCheckedOutAt())
-                .checkedInAt(usage.getCheckedInAt())
-                .build();
+    private void publishEvent(String eventType, Booking booking, Map<String, Object> payload) {
+        outboxService.publish(eventType, BookingEvents.AGGREGATE_TYPE, booking.getId(), payload);
+        applicationEventPublisher.publishEvent(ChangeEvents.booking(eventType, booking));
     }
 }
-
@@ -0,0 +1,163 @@
+package com.enterprise.carshare.service;
+
+import com.enterprise.carshare.domain.Booking;
+import com.enterprise.carshare.domain.Vehicle;
+import com.enterprise.carshare.repository.BookingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Closes out bookings that time has overtaken. Pending bookings still undecided after their start are
+ * expired, so they stop holding the slot; approved bookings never collected by their end are expired
+ * and release the vehicle; approved bookings checked out but not returned by their end are flagged
+ * overdue. Each batch is one set-based UPDATE over a partial or composite index, committed on its own,
+ * and rows locked elsewhere are skipped, so any number of nodes can sweep at the same time.
+ */
+@Slf4j
+@Component
+public class BookingSweeper {
+    
+    private final BookingRepository bookingRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer sweepTimer;
+    private final Map<Sweep, Counter> swept;
+    
+    @Value("${app.booking.sweeper.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.booking.sweeper.batch-size:200}")
+    private int batchSize;
+    
+    @Value("${app.booking.sweeper.max-batches:50}")
+    private int maxBatches;
+    
+    @Value("${app.booking.sweeper.pending-grace:15m}")
+    private Duration pendingGrace;
+    
+    @Value("${app.booking.sweeper.return-grace:30m}")
+    private Duration returnGrace;
+    
+    public BookingSweeper(BookingRepository bookingRepository, BookingIntervalIndex bookingIntervalIndex,
+                          OutboxService outboxService, ApplicationEventPublisher applicationEventPublisher,
+                          TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.outboxService = outboxService;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.sweepTimer = meterRegistry.timer("carshare.bookings.sweep");
+        this.swept = new EnumMap<>(Sweep.class);
+        for (Sweep sweep : Sweep.values()) {
+            swept.put(sweep, meterRegistry.counter("carshare.bookings.swept", "action", sweep.tag));
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${app.booking.sweeper.interval-ms:60000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        
+        sweepTimer.record(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            int expired = drain(Sweep.EXPIRE_PENDING, now.minus(pendingGrace), now);
+            int noShows = drain(Sweep.EXPIRE_NO_SHOWS, now.minus(returnGrace), now);
+            int overdue = drain(Sweep.FLAG_OVERDUE, now.minus(returnGrace), now);
+            if (expired + noShows + overdue > 0) {
+                log.info("Booking sweep expired {} pending and {} uncollected bookings, flagged {} overdue",
+                        expired, noShows, overdue);
+            }
+        });
+    }
+    
+    // Bounded per run so a large backlog is worked off over several runs instead of one long one
+    private int drain(Sweep sweep, LocalDateTime cutoff, LocalDateTime now) {
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            Integer count = transactionTemplate.execute(status -> sweepBatch(sweep, cutoff, now));
+            int changed = count != null ? count : 0;
+            total += changed;
+            swept.get(sweep).increment(changed);
+            if (changed < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+    
+    private int sweepBatch(Sweep sweep, LocalDateTime cutoff, LocalDateTime now) {
+        List<Long> ids = switch (sweep) {
+            case EXPIRE_PENDING -> bookingRepository.expirePendingBefore(cutoff, now, batchSize);
+            case EXPIRE_NO_SHOWS -> bookingRepository.expireNoShowsBefore(cutoff, now, batchSize);
+            case FLAG_OVERDUE -> bookingRepository.flagOverdueBefore(cutoff, now, batchSize);
+        };
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        
+        // Loaded after the update, so they carry the new status
+        List<Booking> bookings = bookingRepository.findWithVehicleByIdIn(ids);
+        String eventType = sweep == Sweep.FLAG_OVERDUE ? BookingEvents.OVERDUE : BookingEvents.EXPIRED;
+        for (Booking booking : bookings) {
+            if (sweep != Sweep.FLAG_OVERDUE) {
+                bookingIntervalIndex.removeAfterCommit(booking.getVehicle().getId(), booking.getId());
+            }
+            outboxService.publish(eventType, BookingEvents.AGGREGATE_TYPE, booking.getId(), BookingEvents.payload(booking));
+            applicationEventPublisher.publishEvent(ChangeEvents.booking(eventType, booking));
+        }
+        if (sweep == Sweep.EXPIRE_NO_SHOWS) {
+            releaseVehicles(bookings);
+        }
+        return ids.size();
+    }
+    
+    // Approval marks the vehicle in use, so it stays that way while another approved booking remains.
+    // The vehicles are managed entities, which keeps their second-level cache entries valid.
+    private void releaseVehicles(List<Booking> bookings) {
+        Set<Long> vehicleIds = new HashSet<>();
+        for (Booking booking : bookings) {
+            vehicleIds.add(booking.getVehicle().getId());
+        }
+        Set<Long> stillBooked = new HashSet<>(bookingRepository.findVehicleIdsWithApprovedBookings(vehicleIds));
+        
+        Set<Long> released = new HashSet<>();
+        for (Booking booking : bookings) {
+            Vehicle vehicle = booking.getVehicle();
+            if (vehicle.getStatus() == Vehicle.VehicleStatus.IN_USE && !stillBooked.contains(vehicle.getId())
+                    && released.add(vehicle.getId())) {
+                vehicle.setStatus(Vehicle.VehicleStatus.AVAILABLE);
+                applicationEventPublisher.publishEvent(ChangeEvents.vehicle(vehicle));
+            }
+        }
+    }
+    
+    private enum Sweep {
+        EXPIRE_PENDING("expired_pending"),
+        EXPIRE_NO_SHOWS("expired_no_show"),
+        FLAG_OVERDUE("flagged_overdue");
+        
+        private final String tag;
+        
+        Sweep(String tag) {
+            this.tag = tag;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.enterprise.carshare.service;
+
+import com.enterprise.carshare.domain.Booking;
+import com.enterprise.carshare.domain.MaintenanceTask;
+import com.enterprise.carshare.domain.Vehicle;
+import com.enterprise.carshare.dto.ChangeEventDto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Builds the compact change notifications pushed to {@code /events} subscribers. They are published as
+ * Spring application events and only reach {@link ChangeStreamHub} once the transaction commits.
+ */
+public final class ChangeEvents {
+    
+    public static final String VEHICLE_STATUS_CHANGED = "VehicleStatusChanged";
+    public static final String MAINTENANCE_STATUS_CHANGED = "MaintenanceTaskStatusChanged";
+    
+    private ChangeEvents() {
+    }
+    
+    static ChangeEventDto vehicle(Vehicle vehicle) {
+        return ChangeEventDto.builder()
+                .type(VEHICLE_STATUS_CHANGED)
+                .entity("vehicle")
+                .entityId(vehicle.getId())
+                .vehicleId(vehicle.getId())
+                .department(vehicle.getDepartmentOwner())
+                .status(vehicle.getStatus().name())
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+    
+    static ChangeEventDto booking(String type, Booking booking) {
+        return ChangeEventDto.builder()
+                .type(type)
+                .entity("booking")
+                .entityId(booking.getId())
+                .vehicleId(booking.getVehicle().getId())
+                .department(booking.getVehicle().getDepartmentOwner())
+                .status(booking.getStatus().name())
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+    
+    static ChangeEventDto maintenance(MaintenanceTask task) {
+        return ChangeEventDto.builder()
+                .type(MAINTENANCE_STATUS_CHANGED)
+                .entity("maintenance")
+                .entityId(task.getId())
+                .vehicleId(task.getVehicle().getId())
+                .department(task.getVehicle().getDepartmentOwner())
+                .status(task.getStatus().name())
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,203 @@
+package com.enterprise.carshare.service;
+
+import com.enterprise.carshare.dto.ChangeEventDto;
+import com.enterprise.carshare.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans committed change events out to Server-Sent Events subscribers. An idle subscriber is only an
+ * async servlet response and a small queue, so thousands cost no threads. Publishing never blocks:
+ * events are offered to each matching subscriber's bounded queue and written by a per-subscriber
+ * drain on a virtual thread, and a subscriber whose queue is full is disconnected rather than
+ * slowing everyone else down. Clients reconnect and reload their snapshot.
+ */
+@Slf4j
+@Service
+public class ChangeStreamHub {
+    
+    private static final long RETRY_AFTER_SECONDS = 5;
+    
+    private final Map<Long, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong subscriberIds = new AtomicLong();
+    private final AtomicLong eventIds = new AtomicLong();
+    // At most one drain per subscriber is queued or running, so this is bounded by the subscriber count
+    private final ExecutorService drainExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter sent;
+    private final Counter dropped;
+    
+    @Value("${app.events.max-subscribers:5000}")
+    private int maxSubscribers;
+    
+    @Value("${app.events.queue-capacity:256}")
+    private int queueCapacity;
+    
+    @Value("${app.events.timeout-ms:1800000}")
+    private long timeoutMs;
+    
+    @Value("${app.events.reconnect-ms:3000}")
+    private long reconnectMs;
+    
+    public ChangeStreamHub(MeterRegistry meterRegistry) {
+        this.sent = meterRegistry.counter("carshare.events.sent");
+        this.dropped = meterRegistry.counter("carshare.events.dropped");
+        Gauge.builder("carshare.events.subscribers", subscribers, Map::size).register(meterRegistry);
+    }
+    
+    /**
+     * Opens a stream of changes, optionally limited to vehicles of one department and/or a set of
+     * vehicles. Both filters must match when both are given.
+     */
+    public SseEmitter subscribe(String department, Set<Long> vehicleIds) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new TooManyRequestsException("Too many event subscribers, please retry shortly", RETRY_AFTER_SECONDS);
+        }
+        
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(subscriberIds.incrementAndGet(), department,
+                vehicleIds != null ? Set.copyOf(vehicleIds) : Set.of(), emitter, new ArrayBlockingQueue<>(queueCapacity));
+        emitter.onCompletion(() -> subscribers.remove(subscriber.id));
+        emitter.onTimeout(() -> subscribers.remove(subscriber.id));
+        emitter.onError(e -> subscribers.remove(subscriber.id));
+        
+        // Sent before the handler returns, so it is buffered and flushed with the response headers
+        try {
+            emitter.send(SseEmitter.event().comment("connected").reconnectTime(reconnectMs));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return emitter;
+        }
+        subscribers.put(subscriber.id, subscriber);
+        return emitter;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ChangeEventDto event) {
+        String eventId = Long.toString(eventIds.incrementAndGet());
+        for (Subscriber subscriber : subscribers.values()) {
+            if (!subscriber.matches(event)) {
+                continue;
+            }
+            if (subscriber.queue.offer(new Delivery(eventId, event))) {
+                schedule(subscriber);
+            } else {
+                disconnect(subscriber, "queue full");
+            }
+        }
+    }
+    
+    // Keeps proxies from closing idle streams and detects clients that went away without closing
+    @Scheduled(fixedDelayString = "${app.events.heartbeat-ms:20000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers.values()) {
+            subscriber.heartbeatDue = true;
+            schedule(subscriber);
+        }
+    }
+    
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            drainExecutor.execute(() -> drain(subscriber));
+        }
+    }
+    
+    private void drain(Subscriber subscriber) {
+        try {
+            while (true) {
+                if (subscriber.heartbeatDue) {
+                    subscriber.heartbeatDue = false;
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+                Delivery delivery = subscriber.queue.poll();
+                if (delivery == null) {
+                    subscriber.draining.set(false);
+                    // An offer may have landed after the poll but before the flag was cleared
+                    if ((subscriber.queue.isEmpty() && !subscriber.heartbeatDue)
+                            || !subscriber.draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                subscriber.emitter.send(SseEmitter.event()
+                        .id(delivery.id())
+                        .name(delivery.event().getType())
+                        .data(delivery.event(), MediaType.APPLICATION_JSON));
+                sent.increment();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The client has gone, or the emitter already completed
+            subscribers.remove(subscriber.id);
+            subscriber.queue.clear();
+            subscriber.draining.set(false);
+        }
+    }
+    
+    private void disconnect(Subscriber subscriber, String reason) {
+        if (subscribers.remove(subscriber.id) != null) {
+            dropped.increment();
+            log.debug("Dropping event subscriber {}: {}", subscriber.id, reason);
+            subscriber.queue.clear();
+            // Completing takes the emitter's lock, which a drain blocked on a slow socket may hold
+            drainExecutor.execute(subscriber.emitter::complete);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers.values()) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+        drainExecutor.shutdownNow();
+    }
+    
+    private record Delivery(String id, ChangeEventDto event) {
+    }
+    
+    private static final class Subscriber {
+        
+        private final long id;
+        private final String department;
+        private final Set<Long> vehicleIds;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Delivery> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean heartbeatDue;
+        
+        private Subscriber(long id, String department, Set<Long> vehicleIds, SseEmitter emitter,
+                           BlockingQueue<Delivery> queue) {
+            this.id = id;
+            this.department = department;
+            this.vehicleIds = vehicleIds;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+        
+        private boolean matches(ChangeEventDto event) {
+            if (department != null && !department.equals(event.getDepartment())) {
+                return false;
+            }
+            return vehicleIds.isEmpty() || vehicleIds.contains(event.getVehicleId());
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.enterprise.carshare.service;
+
+import com.enterprise.carshare.domain.OutboxEvent;
+import com.enterprise.carshare.repository.DailyUsageRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+/**
+ * Keeps {@code daily_usage_rollup} in step with completed bookings. The day is recomputed rather
+ * than incremented so redelivered check-in events don't double count.
+ */
+@Component
+@RequiredArgsConstructor
+public class DailyUsageRollupHandler implements OutboxEventHandler {
+    
+    private final DailyUsageRollupRepository dailyUsageRollupRepository;
+    
+    @Override
+    public boolean supports(String eventType) {
+        return BookingEvents.CHECKED_IN.equals(eventType);
+    }
+    
+    @Override
+    @Transactional
+    public void handle(OutboxEvent event) {
+        LocalDate usageDate = LocalDate.parse((String) event.getPayload().get("usageDate"));
+        dailyUsageRollupRepository.recomputeDay(usageDate, usageDate.atStartOfDay(), usageDate.plusDays(1).atStartOfDay());
+    }
+}
@@ -0,0 +1,200 @@
+package com.enterprise.carshare.service;
+
+import com.enterprise.carshare.domain.JobWatermark;
+import com.enterprise.carshare.domain.MaintenanceTask;
+import com.enterprise.carshare.domain.Vehicle;
+import com.enterprise.carshare.repository.JobWatermarkRepository;
+import com.enterprise.carshare.repository.MaintenanceTaskRepository;
+import com.enterprise.carshare.repository.VehicleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Raises OPEN maintenance tasks for vehicles whose service date, service mileage, insurance or
+ * registration is coming up. Each run only looks at vehicles whose dates entered the look-ahead window
+ * since the previous run, vehicles edited since then and vehicles whose maintenance was just closed;
+ * the job's progress is kept in {@code job_watermarks}, whose row lock also keeps other nodes from
+ * running it at the same time. Vehicles that already have open maintenance are left alone.
+ */
+@Slf4j
+@Component
+public class MaintenanceScheduler {
+    
+    private static final String JOB_NAME = "maintenance-scheduler";
+    
+    private static final int CHUNK_SIZE = 500;
+    // Changes saved by transactions still in flight when the previous run started were invisible to it
+    private static final long MODIFIED_OVERLAP_SECONDS = 300;
+    private static final LocalDateTime BEGINNING = LocalDate.EPOCH.atStartOfDay();
+    
+    private final VehicleRepository vehicleRepository;
+    private final MaintenanceTaskRepository maintenanceTaskRepository;
+    private final JobWatermarkRepository jobWatermarkRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${app.maintenance.scheduler.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.maintenance.scheduler.lead-days:14}")
+    private int leadDays;
+    
+    @Value("${app.maintenance.scheduler.mileage-lead:1000}")
+    private long mileageLead;
+    
+    @Value("${app.maintenance.scheduler.mileage-planning-days:7}")
+    private int mileagePlanningDays;
+    
+    public MaintenanceScheduler(VehicleRepository vehicleRepository,
+                                MaintenanceTaskRepository maintenanceTaskRepository,
+                                JobWatermarkRepository jobWatermarkRepository,
+                                TransactionTemplate transactionTemplate,
+                                MeterRegistry meterRegistry) {
+        this.vehicleRepository = vehicleRepository;
+        this.maintenanceTaskRepository = maintenanceTaskRepository;
+        this.jobWatermarkRepository = jobWatermarkRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+    
+    @Scheduled(cron = "${app.maintenance.scheduler.cron:0 15 2 * * *}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        
+        Integer created = transactionTemplate.execute(status -> schedule(LocalDate.now(), LocalDateTime.now()));
+        if (created != null && created > 0) {
+            log.info("Maintenance scheduler raised {} tasks", created);
+        }
+    }
+    
+    private int schedule(LocalDate today, LocalDateTime now) {
+        JobWatermark watermark = jobWatermarkRepository.lockByJobName(JOB_NAME).orElse(null);
+        if (watermark == null) {
+            log.debug("Maintenance scheduler is already running on another node");
+            return 0;
+        }
+        
+        // The first run has no watermark and considers every vehicle once
+        LocalDate horizon = today.plusDays(leadDays);
+        LocalDate scannedUntil = watermark.getScannedUntil() != null ? watermark.getScannedUntil() : LocalDate.EPOCH;
+        LocalDateTime modifiedSince = watermark.getModifiedSince() != null
+                ? watermark.getModifiedSince().minusSeconds(MODIFIED_OVERLAP_SECONDS)
+                : BEGINNING;
+        
+        Set<Long> candidates = new TreeSet<>();
+        if (horizon.isAfter(scannedUntil)) {
+            candidates.addAll(vehicleRepository.findIdsWithThresholdBetween(scannedUntil, horizon));
+        }
+        candidates.addAll(vehicleRepository.findIdsChangedWithinThresholds(modifiedSince, horizon, mileageLead));
+        candidates.addAll(maintenanceTaskRepository.findVehicleIdsCompletedSince(modifiedSince));
+        
+        List<Long> ids = new ArrayList<>(candidates);
+        int created = 0;
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            created += scheduleChunk(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())), today, horizon);
+        }
+        
+        if (horizon.isAfter(scannedUntil)) {
+            watermark.setScannedUntil(horizon);
+        }
+        watermark.setModifiedSince(now);
+        watermark.setUpdatedAt(now);
+        jobWatermarkRepository.save(watermark);
+        return created;
+    }
+    
+    private int scheduleChunk(List<Long> vehicleIds, LocalDate today, LocalDate horizon) {
+        Set<Long> busy = new HashSet<>(maintenanceTaskRepository.findVehicleIdsWithOpenTasks(vehicleIds));
+        List<MaintenanceTask> tasks = new ArrayList<>();
+        for (Vehicle vehicle : vehicleRepository.findAllById(vehicleIds)) {
+            if (busy.contains(vehicle.getId()) || vehicle.getStatus() == Vehicle.VehicleStatus.INACTIVE) {
+                continue;
+            }
+            MaintenanceTask task = taskFor(vehicle, today, horizon);
+            if (task != null) {
+                tasks.add(task);
+            }
+        }
+        
+        maintenanceTaskRepository.insertAll(tasks);
+        for (MaintenanceTask task : tasks) {
+            meterRegistry.counter("carshare.maintenance.scheduled", "reason", task.getReason().name()).increment();
+        }
+        return tasks.size();
+    }
+    
+    // One task per vehicle covering every threshold that is due, planned for the earliest of them.
+    // The reason is the most significant one, so completing a service rolls the service thresholds on.
+    private MaintenanceTask taskFor(Vehicle vehicle, LocalDate today, LocalDate horizon) {
+        MaintenanceTask.MaintenanceReason reason = null;
+        LocalDate plannedDate = null;
+        List<String> notes = new ArrayList<>();
+        
+        if (isWithin(vehicle.getNextServiceDue(), horizon)) {
+            reason = MaintenanceTask.MaintenanceReason.SERVICE;
+            plannedDate = vehicle.getNextServiceDue();
+            notes.add("Service due on " + vehicle.getNextServiceDue());
+        }
+        Long serviceMileage = vehicle.getNextServiceMileage();
+        if (serviceMileage != null && vehicle.getCurrentMileage() >= serviceMileage - mileageLead) {
+            reason = MaintenanceTask.MaintenanceReason.SERVICE;
+            LocalDate mileageDate = vehicle.getCurrentMileage() >= serviceMileage
+                    ? today
+                    : today.plusDays(mileagePlanningDays);
+            plannedDate = earliest(plannedDate, mileageDate);
+            notes.add("Service due at " + serviceMileage + " km, currently " + vehicle.getCurrentMileage() + " km");
+        }
+        if (isWithin(vehicle.getInsuranceExpiryDate(), horizon)) {
+            reason = reason != null ? reason : MaintenanceTask.MaintenanceReason.INSURANCE;
+            plannedDate = earliest(plannedDate, vehicle.getInsuranceExpiryDate());
+            notes.add("Insurance expires on " + vehicle.getInsuranceExpiryDate());
+        }
+        if (isWithin(vehicle.getRegistrationExpiryDate(), horizon)) {
+            reason = reason != null ? reason : MaintenanceTask.MaintenanceReason.REGISTRATION;
+            plannedDate = earliest(plannedDate, vehicle.getRegistrationExpiryDate());
+            notes.add("Registration expires on " + vehicle.getRegistrationExpiryDate());
+        }
+        if (reason == null) {
+            return null;
+        }
+        
+        return MaintenanceTask.builder()
+                .vehicle(vehicle)
+                .title(titleOf(reason) + " for " + vehicle.getPlateNumber())
+                .description(String.join("\n", notes))
+                .status(MaintenanceTask.MaintenanceStatus.OPEN)
+                .plannedDate(plannedDate.isBefore(today) ? today : plannedDate)
+                .reason(reason)
+                .build();
+    }
+    
+    private static boolean isWithin(LocalDate date, LocalDate horizon) {
+        return date != null && !date.isAfter(horizon);
+    }
+    
+    private static LocalDate earliest(LocalDate current, LocalDate candidate) {
+        return current == null || candidate.isBefore(current) ? candidate : current;
+    }
+    
+    private static String titleOf(MaintenanceTask.MaintenanceReason reason) {
+        return switch (reason) {
+            case SERVICE -> "Scheduled service";
+            case INSURANCE -> "Insurance renewal";
+            case REGISTRATION -> "Registration renewal";
+        };
+    }
+}
@@ -3,6 +3,7 @@ package com.enterprise.carshare.service;
 import com.enterprise.carshare.domain.MaintenanceTask;
 import com.enterprise.carshare.domain.User;
 import com.enterprise.carshare.domain.Vehicle;
+import com.enterprise.carshare.dto.CursorPageResponse;
 import com.enterprise.carshare.dto.MaintenanceTaskCreateRequest;
 import com.enterprise.carshare.dto.MaintenanceTaskDto;
 import com.enterprise.carshare.dto.PageResponse;
@@ -10,7 +11,11 @@ import com.enterprise.carshare.mapper.MaintenanceTaskMapper;
 import com.enterprise.carshare.repository.MaintenanceTaskRepository;
 import com.enterprise.carshare.repository.UserRepository;
 import com.enterprise.carshare.repository.VehicleRepository;
+import com.enterprise.carshare.util.PageCursor;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -19,16 +24,25 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "carshare.service", histogram = true)
 public class MaintenanceService {
     
     private final MaintenanceTaskRepository maintenanceTaskRepository;
     private final VehicleRepository vehicleRepository;
     private final UserRepository userRepository;
     private final MaintenanceTaskMapper maintenanceTaskMapper;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    
+    @Value("${app.maintenance.service-interval-months:12}")
+    private int serviceIntervalMonths;
+    
+    @Value("${app.maintenance.service-interval-km:15000}")
+    private long serviceIntervalKm;
     
     @Transactional
     public MaintenanceTaskDto createMaintenanceTask(Long createdById, MaintenanceTaskCreateRequest request) {
@@ -103,6 +117,42 @@ public class MaintenanceService {
                 .build();
     }
     
+    public CursorPageResponse<MaintenanceTaskDto> getAllMaintenanceTasksAfter(
+            String after, int limit, boolean includeTotal) {
+        PageCursor cursor = after != null ? PageCursor.decode(after) : null;
+        int pageLimit = PageCursor.clampLimit(limit);
+        
+        List<MaintenanceTask> rows = maintenanceTaskRepository.findPageBefore(
+                seekCreatedAt(cursor), seekId(cursor), PageRequest.of(0, pageLimit + 1));
+        Long total = includeTotal ? maintenanceTaskRepository.count() : null;
+        
+        return CursorPageResponse.of(rows, pageLimit, maintenanceTaskMapper::toDto, this::cursorOf, total);
+    }
+    
+    public CursorPageResponse<MaintenanceTaskDto> getMaintenanceTasksByVehicleAfter(
+            Long vehicleId, String after, int limit, boolean includeTotal) {
+        PageCursor cursor = after != null ? PageCursor.decode(after) : null;
+        int pageLimit = PageCursor.clampLimit(limit);
+        
+        List<MaintenanceTask> rows = maintenanceTaskRepository.findPageByVehicleIdBefore(
+                vehicleId, seekCreatedAt(cursor), seekId(cursor), PageRequest.of(0, pageLimit + 1));
+        Long total = includeTotal ? maintenanceTaskRepository.countByVehicleId(vehicleId) : null;
+        
+        return CursorPageResponse.of(rows, pageLimit, maintenanceTaskMapper::toDto, this::cursorOf, total);
+    }
+    
+    private LocalDateTime seekCreatedAt(PageCursor cursor) {
+        return cursor != null ? cursor.dateTimeKey() : PageCursor.LATEST;
+    }
+    
+    private Long seekId(PageCursor cursor) {
+        return cursor != null ? cursor.getId() : Long.MAX_VALUE;
+    }
+    
+    private String cursorOf(MaintenanceTask task) {
+        return PageCursor.encode(task.getCreatedAt(), task.getId());
+    }
+    
     @Transactional
     public MaintenanceTaskDto updateMaintenanceTaskStatus(Long id, MaintenanceTask.MaintenanceStatus status) {
         MaintenanceTask task = maintenanceTaskRepository.findById(id)
@@ -112,17 +162,29 @@ public class MaintenanceService {
         
         if (status == MaintenanceTask.MaintenanceStatus.DONE) {
             task.setCompletedDate(LocalDate.now());
+            if (task.getReason() == MaintenanceTask.MaintenanceReason.SERVICE) {
+                rollServiceForward(task.getVehicle(), task.getCompletedDate());
+            }
             // Mark vehicle as available if maintenance is done
             task.getVehicle().setStatus(Vehicle.VehicleStatus.AVAILABLE);
             vehicleRepository.save(task.getVehicle());
+            applicationEventPublisher.publishEvent(ChangeEvents.vehicle(task.getVehicle()));
         } else if (status == MaintenanceTask.MaintenanceStatus.IN_PROGRESS) {
             // Mark vehicle as under maintenance
             task.getVehicle().setStatus(Vehicle.VehicleStatus.MAINTENANCE);
             vehicleRepository.save(task.getVehicle());
+            applicationEventPublisher.publishEvent(ChangeEvents.vehicle(task.getVehicle()));
         }
         
         task = maintenanceTaskRepository.save(task);
+        applicationEventPublisher.publishEvent(ChangeEvents.maintenance(task));
         return maintenanceTaskMapper.toDto(task);
     }
+    
+    // Starts the next service interval from today, so the scheduler doesn't raise the same service again
+    private void rollServiceForward(Vehicle vehicle, LocalDate serviceDate) {
+        vehicle.setLastServiceDate(serviceDate);
+        vehicle.setNextServiceDue(serviceDate.plusMonths(serviceIntervalMonths));
+        vehicle.setNextServiceMileage(vehicle.getCurrentMileage() + serviceIntervalKm);
+    }
 }
-
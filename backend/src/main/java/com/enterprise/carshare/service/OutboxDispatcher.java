@@ -0,0 +1,154 @@
+package com.enterprise.carshare.service;
+
+import com.enterprise.carshare.domain.OutboxEvent;
+import com.enterprise.carshare.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Polls {@code outbox_events} and hands each claimed event to every {@link OutboxEventHandler} that
+ * supports it. Claims are leased rather than held open, so several nodes can dispatch concurrently and
+ * an event whose node dies mid-delivery is picked up again once its lease expires. Failed events are
+ * retried with exponential backoff and marked DEAD after {@code max-attempts}.
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher {
+    
+    private static final int MAX_ERROR_LENGTH = 2000;
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {};
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxEventHandler> handlers;
+    private final ObjectMapper objectMapper;
+    private final Counter delivered;
+    private final Counter retried;
+    private final Counter deadLettered;
+    
+    @Value("${app.outbox.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+    
+    @Value("${app.outbox.lease-seconds:60}")
+    private long leaseSeconds;
+    
+    @Value("${app.outbox.max-attempts:10}")
+    private int maxAttempts;
+    
+    @Value("${app.outbox.backoff-base-ms:1000}")
+    private long backoffBaseMs;
+    
+    @Value("${app.outbox.backoff-max-ms:300000}")
+    private long backoffMaxMs;
+    
+    @Value("${app.outbox.retention-hours:168}")
+    private long retentionHours;
+    
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository, List<OutboxEventHandler> handlers,
+                            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.handlers = handlers;
+        this.objectMapper = objectMapper;
+        this.delivered = meterRegistry.counter("carshare.outbox.events", "result", "delivered");
+        this.retried = meterRegistry.counter("carshare.outbox.events", "result", "retried");
+        this.deadLettered = meterRegistry.counter("carshare.outbox.events", "result", "dead");
+        Gauge.builder("carshare.outbox.pending", outboxEventRepository,
+                        repository -> repository.countByStatus(OutboxEvent.OutboxStatus.PENDING))
+                .register(meterRegistry);
+    }
+    
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        if (!enabled) {
+            return;
+        }
+        
+        // Keep draining while batches come back full so a backlog clears without waiting a poll interval
+        List<OutboxEvent> batch;
+        do {
+            LocalDateTime now = LocalDateTime.now();
+            batch = outboxEventRepository.claimBatch(batchSize, now, now.plusSeconds(leaseSeconds));
+            for (OutboxEvent event : batch) {
+                deliver(event);
+            }
+        } while (batch.size() == batchSize);
+    }
+    
+    @Scheduled(fixedDelayString = "${app.outbox.purge-interval-ms:3600000}")
+    public void purgeProcessed() {
+        if (!enabled) {
+            return;
+        }
+        
+        int purged = outboxEventRepository.deleteProcessedBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (purged > 0) {
+            log.info("Purged {} delivered outbox events", purged);
+        }
+    }
+    
+    private void deliver(OutboxEvent event) {
+        try {
+            event.setPayload(readPayload(event.getRawPayload()));
+            for (OutboxEventHandler handler : handlers) {
+                if (handler.supports(event.getEventType())) {
+                    handler.handle(event);
+                }
+            }
+            outboxEventRepository.markDone(event.getId(), LocalDateTime.now());
+            delivered.increment();
+        } catch (RuntimeException e) {
+            fail(event, e);
+        }
+    }
+    
+    private void fail(OutboxEvent event, RuntimeException e) {
+        String error = truncate(e.toString());
+        if (event.getAttempts() >= maxAttempts) {
+            log.error("Outbox event {} ({}) dead-lettered after {} attempts",
+                    event.getId(), event.getEventType(), event.getAttempts(), e);
+            outboxEventRepository.markDead(event.getId(), LocalDateTime.now(), error);
+            deadLettered.increment();
+            return;
+        }
+        
+        long delayMs = backoffMs(event.getAttempts());
+        log.warn("Outbox event {} ({}) failed on attempt {}, retrying in {} ms: {}",
+                event.getId(), event.getEventType(), event.getAttempts(), delayMs, error);
+        outboxEventRepository.scheduleRetry(event.getId(), LocalDateTime.now().plusNanos(delayMs * 1_000_000), error);
+        retried.increment();
+    }
+    
+    private Map<String, Object> readPayload(String json) {
+        try {
+            return objectMapper.readValue(json, PAYLOAD_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable outbox payload", e);
+        }
+    }
+    
+    // Exponential in the attempt number with up to 20% jitter so failing events don't retry in lockstep
+    private long backoffMs(int attempts) {
+        long exponential = backoffBaseMs << Math.min(attempts - 1, 20);
+        long delay = Math.min(exponential, backoffMaxMs);
+        return delay + ThreadLocalRandom.current().nextLong(delay / 5 + 1);
+    }
+    
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,14 @@
+package com.enterprise.carshare.service;
+
+import com.enterprise.carshare.domain.OutboxEvent;
+
+/**
+ * In-process consumer of outbox events. Delivery is at-least-once, so handlers must be idempotent;
+ * throwing schedules the event for another attempt.
+ */
+public interface OutboxEventHandler {
+    
+    boolean supports(String eventType);
+    
+    void handle(OutboxEvent event);
+}
@@ -0,0 +1,35 @@
+package com.enterprise.carshare.service;
+
+import com.enterprise.carshare.domain.OutboxEvent;
+import com.enterprise.carshare.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+    
+    private final OutboxEventRepository outboxEventRepository;
+    
+    /**
+     * Records an event in the caller's transaction so it is stored if and only if the state change
+     * commits. Delivery happens later through {@link OutboxDispatcher}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(String eventType, String aggregateType, Long aggregateId, Map<String, Object> payload) {
+        LocalDateTime now = LocalDateTime.now();
+        outboxEventRepository.save(OutboxEvent.builder()
+                .eventType(eventType)
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .payload(payload)
+                .availableAt(now)
+                .createdAt(now)
+                .build());
+    }
+}
@@ -1,48 +1,73 @@
 package com.enterprise.carshare.service;
 
-import com.enterprise.carshare.domain.Booking;
 import com.enterprise.carshare.domain.Vehicle;
+import com.enterprise.carshare.dto.BookingExportRow;
 import com.enterprise.carshare.dto.ReportDto;
 import com.enterprise.carshare.repository.BookingRepository;
+import com.enterprise.carshare.repository.DailyUsageRollupRepository;
+import com.enterprise.carshare.repository.UsageTotalsView;
 import com.enterprise.carshare.repository.VehicleRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-import java.util.List;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "carshare.service", histogram = true)
 public class ReportService {
     
     private final BookingRepository bookingRepository;
     private final VehicleRepository vehicleRepository;
+    private final DailyUsageRollupRepository dailyUsageRollupRepository;
+    private final ObjectMapper objectMapper;
     
+    private static final String[] CSV_HEADER = {
+        "booking_id", "status", "start_date_time", "end_date_time", "pickup_location", "return_location",
+        "purpose", "created_at", "vehicle_id", "plate_number", "brand", "model", "vehicle_type",
+        "vehicle_department", "vehicle_cost_center", "user_id", "user_email", "user_first_name",
+        "user_last_name", "user_department", "user_cost_center", "approver_email", "start_mileage",
+        "end_mileage", "distance_travelled", "start_fuel_level", "end_fuel_level", "damage_reported",
+        "checked_out_at", "checked_in_at"
+    };
+    
+    // "rollup" sums the pre-aggregated daily rows, "bookings" aggregates the raw tables
+    @Value("${app.reports.usage-source:rollup}")
+    private String usageSource;
+    
+    @Transactional(readOnly = true)
     public ReportDto getUsageReport(LocalDate startDate, LocalDate endDate) {
-        // Get all completed bookings in the period
-        List<Booking> completedBookings = bookingRepository.findAll().stream()
-                .filter(b -> b.getStatus() == Booking.BookingStatus.COMPLETED)
-                .filter(b -> {
-                    LocalDate bookingDate = b.getStartDateTime().toLocalDate();
-                    return !bookingDate.isBefore(startDate) && !bookingDate.isAfter(endDate);
-                })
-                .toList();
+        // Completed bookings whose start date falls in the period, inclusive of both ends
+        UsageTotalsView totals = "bookings".equalsIgnoreCase(usageSource)
+                ? bookingRepository.sumCompletedUsage(startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay())
+                : dailyUsageRollupRepository.sumBetween(startDate, endDate);
         
-        long totalBookings = completedBookings.size();
-        long totalDistance = completedBookings.stream()
-                .filter(b -> b.getUsage() != null && b.getUsage().getDistanceTravelled() != null)
-                .mapToLong(b -> b.getUsage().getDistanceTravelled())
-                .sum();
+        long totalBookings = totals.getBookingCount();
+        long totalDistance = totals.getTotalDistance();
         
         // Simple fuel estimation: assume average 10L/100km
         BigDecimal estimatedFuelUsage = BigDecimal.valueOf(totalDistance)
-                .divide(BigDecimal.valueOf(100), 2, BigDecimal.ROUND_HALF_UP)
+                .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP)
                 .multiply(BigDecimal.valueOf(10));
         
         long totalVehicles = vehicleRepository.count();
-        long activeVehicles = vehicleRepository.findByStatus(Vehicle.VehicleStatus.AVAILABLE, null).getTotalElements();
-        long vehiclesInMaintenance = vehicleRepository.findByStatus(Vehicle.VehicleStatus.MAINTENANCE, null).getTotalElements();
+        long activeVehicles = vehicleRepository.countByStatus(Vehicle.VehicleStatus.AVAILABLE);
+        long vehiclesInMaintenance = vehicleRepository.countByStatus(Vehicle.VehicleStatus.MAINTENANCE);
         
         return ReportDto.builder()
                 .periodStart(startDate)
@@ -55,5 +80,93 @@ public class ReportService {
                 .vehiclesInMaintenance(vehiclesInMaintenance)
                 .build();
     }
+    
+    /**
+     * Writes every booking starting in the period, with vehicle, user and usage columns, straight from a
+     * database cursor. Rows are projections rather than entities, so memory stays flat however many
+     * rows are exported.
+     */
+    @Transactional(readOnly = true)
+    public void exportBookings(LocalDate from, LocalDate to, ExportFormat format, OutputStream outputStream)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write(String.join(",", CSV_HEADER));
+            writer.write('\n');
+        }
+        
+        try (Stream<BookingExportRow> rows = bookingRepository.streamExportRows(
+                from.atStartOfDay(), to.plusDays(1).atStartOfDay())) {
+            Iterator<BookingExportRow> iterator = rows.iterator();
+            long written = 0;
+            while (iterator.hasNext()) {
+                BookingExportRow row = iterator.next();
+                if (format == ExportFormat.CSV) {
+                    writeCsvRow(writer, row);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(row));
+                }
+                writer.write('\n');
+                
+                // Push data to the client while the cursor is still being read
+                if (++written % 1000 == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+    }
+    
+    private void writeCsvRow(Writer writer, BookingExportRow row) throws IOException {
+        Object[] values = {
+            row.getBookingId(), row.getStatus(), row.getStartDateTime(), row.getEndDateTime(),
+            row.getPickupLocation(), row.getReturnLocation(), row.getPurpose(), row.getCreatedAt(),
+            row.getVehicleId(), row.getPlateNumber(), row.getBrand(), row.getModel(), row.getVehicleType(),
+            row.getVehicleDepartment(), row.getVehicleCostCenter(), row.getUserId(), row.getUserEmail(),
+            row.getUserFirstName(), row.getUserLastName(), row.getUserDepartment(), row.getUserCostCenter(),
+            row.getApproverEmail(), row.getStartMileage(), row.getEndMileage(), row.getDistanceTravelled(),
+            row.getStartFuelLevel(), row.getEndFuelLevel(), row.getDamageReported(), row.getCheckedOutAt(),
+            row.getCheckedInAt()
+        };
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(values[i]));
+        }
+    }
+    
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        // Keep spreadsheet applications from evaluating free text as a formula
+        if (!(value instanceof Number) && !text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            text = "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+    
+    @Getter
+    @RequiredArgsConstructor
+    public enum ExportFormat {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+        
+        private final String contentType;
+        private final String extension;
+        
+        public static ExportFormat from(String value) {
+            for (ExportFormat format : values()) {
+                if (format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new RuntimeException("Unsupported export format: " + value);
+        }
+    }
 }
-
@@ -0,0 +1,136 @@
+package com.enterprise.carshare.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Size-bounded directory of generated thumbnails with least-recently-used eviction. Recency is tracked
+ * in memory and rebuilt from file modification times on startup, so a restart keeps the cache warm.
+ */
+@Slf4j
+@Component
+public class ThumbnailCache {
+    
+    private final Path dir;
+    private final long maxBytes;
+    // File name to size, in access order
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+    
+    public ThumbnailCache(
+            @Value("${app.thumbnails.cache-dir:./data/thumbnails}") String dir,
+            @Value("${app.thumbnails.cache-max-size:512MB}") DataSize maxSize) {
+        this.dir = Path.of(dir).toAbsolutePath().normalize();
+        this.maxBytes = maxSize.toBytes();
+    }
+    
+    @PostConstruct
+    public void load() throws IOException {
+        Files.createDirectories(dir);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(dir)) {
+            files = listing.filter(path -> path.getFileName().toString().endsWith(".jpg"))
+                    .sorted(Comparator.comparing(ThumbnailCache::lastModified))
+                    .toList();
+        }
+        synchronized (this) {
+            for (Path file : files) {
+                long size = Files.size(file);
+                entries.put(file.getFileName().toString(), size);
+                totalBytes += size;
+            }
+            evict();
+        }
+        log.info("Thumbnail cache at {} holds {} files ({} bytes)", dir, entries.size(), totalBytes);
+    }
+    
+    public synchronized Path get(String name) {
+        if (entries.get(name) == null) {
+            return null;
+        }
+        return dir.resolve(name);
+    }
+    
+    /**
+     * Opens a cached thumbnail for reading, or returns {@code null} if it is not cached. The file is
+     * opened under the cache lock, so eviction cannot delete it in between, and the open channel stays
+     * readable even if the file is evicted while it is being served.
+     */
+    public synchronized FileChannel open(String name) throws IOException {
+        if (entries.get(name) == null) {
+            return null;
+        }
+        return FileChannel.open(dir.resolve(name), StandardOpenOption.READ);
+    }
+    
+    public Path put(String name, ThumbnailWriter writer) throws IOException {
+        Path partial = Files.createTempFile(dir, "thumb-", ".part");
+        try {
+            try (OutputStream out = Files.newOutputStream(partial)) {
+                writer.write(out);
+            }
+            long size = Files.size(partial);
+            Path target = dir.resolve(name);
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            synchronized (this) {
+                Long previous = entries.put(name, size);
+                totalBytes += size - (previous != null ? previous : 0L);
+                evict();
+            }
+            return target;
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
+    
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+    
+    // Always keeps the newest entry, even if it alone exceeds the limit
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && entries.size() > 1 && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            eldest.remove();
+            totalBytes -= entry.getValue();
+            try {
+                Files.deleteIfExists(dir.resolve(entry.getKey()));
+            } catch (IOException e) {
+                log.warn("Could not delete evicted thumbnail {}", entry.getKey(), e);
+            }
+        }
+    }
+    
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    @FunctionalInterface
+    public interface ThumbnailWriter {
+        void write(OutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,299 @@
+package com.enterprise.carshare.service;
+
+import com.enterprise.carshare.exception.TooManyRequestsException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Derives JPEG thumbnails of stored photos at a few fixed sizes. Generation runs on a dedicated,
+ * bounded pool so decoding large camera images never ties up request threads; each source image is
+ * decoded once, subsampled while reading, and scaled down step by step for every size. Concurrent
+ * requests for the same photo share one generation.
+ */
+@Slf4j
+@Service
+public class ThumbnailService {
+    
+    // Decoders ImageIO ships with; WebP and PDF are served without thumbnails
+    private static final Set<String> DECODABLE_TYPES = Set.of("image/jpeg", "image/png", "image/gif");
+    // Guards against decompression bombs, whose header claims far more pixels than the file holds
+    private static final long MAX_SOURCE_PIXELS = 100_000_000L;
+    private static final long RETRY_AFTER_SECONDS = 2;
+    
+    private final BlobStorageService blobStorageService;
+    private final ThumbnailCache thumbnailCache;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final float jpegQuality;
+    private final Map<String, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+    
+    public ThumbnailService(
+            BlobStorageService blobStorageService,
+            ThumbnailCache thumbnailCache,
+            @Value("${app.thumbnails.threads:2}") int threads,
+            @Value("${app.thumbnails.queue-capacity:100}") int queueCapacity,
+            @Value("${app.thumbnails.timeout-ms:10000}") long timeoutMs,
+            @Value("${app.thumbnails.jpeg-quality:0.8}") float jpegQuality) {
+        this.blobStorageService = blobStorageService;
+        this.thumbnailCache = thumbnailCache;
+        this.timeoutMs = timeoutMs;
+        this.jpegQuality = jpegQuality;
+        
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "thumbnails-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+    
+    /**
+     * Queues thumbnail generation for a photo unless every size is already cached. Throws
+     * {@link RejectedExecutionException} when the pool is saturated, so callers can retry later.
+     */
+    public void generateAsync(String key) {
+        if (!isCached(key)) {
+            submit(key);
+        }
+    }
+    
+    /**
+     * Opens the cached thumbnail, generating it first if needed; the caller closes the channel. Returns
+     * {@code null} if the blob does not exist or is not an image we can decode.
+     */
+    public FileChannel openThumbnail(String key, ThumbnailSize size) throws IOException {
+        FileChannel cached = thumbnailCache.open(fileName(key, size));
+        if (cached != null) {
+            return cached;
+        }
+        
+        CompletableFuture<Boolean> generation;
+        try {
+            generation = submit(key);
+        } catch (RejectedExecutionException e) {
+            throw busy();
+        }
+        
+        try {
+            if (!generation.get(timeoutMs, TimeUnit.MILLISECONDS)) {
+                return null;
+            }
+        } catch (TimeoutException e) {
+            throw busy();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Thumbnail generation interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Thumbnail generation failed", e.getCause());
+        }
+        FileChannel generated = thumbnailCache.open(fileName(key, size));
+        if (generated == null) {
+            // Evicted again before it could be opened, which only a cache under heavy churn does
+            throw busy();
+        }
+        return generated;
+    }
+    
+    private static TooManyRequestsException busy() {
+        return new TooManyRequestsException("Thumbnail generation is busy, please retry shortly", RETRY_AFTER_SECONDS);
+    }
+    
+    private boolean isCached(String key) {
+        for (ThumbnailSize size : ThumbnailSize.values()) {
+            if (thumbnailCache.get(fileName(key, size)) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private CompletableFuture<Boolean> submit(String key) {
+        CompletableFuture<Boolean> created = new CompletableFuture<>();
+        CompletableFuture<Boolean> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        
+        try {
+            executor.execute(() -> {
+                try {
+                    created.complete(generate(key));
+                } catch (Throwable e) {
+                    log.warn("Thumbnail generation failed for {}", key, e);
+                    created.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(key, created);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, created);
+            throw e;
+        }
+        return created;
+    }
+    
+    private boolean generate(String key) throws IOException {
+        BlobStorageService.BlobInfo blob = blobStorageService.find(key);
+        if (blob == null || !DECODABLE_TYPES.contains(blob.contentType())) {
+            return false;
+        }
+        
+        BufferedImage image = decode(blob.path(), ThumbnailSize.LARGE.maxDimension);
+        if (image == null) {
+            return false;
+        }
+        // Largest first, so each size is scaled from the previous one rather than from the original
+        ThumbnailSize[] sizes = ThumbnailSize.values();
+        Arrays.sort(sizes, (a, b) -> Integer.compare(b.maxDimension, a.maxDimension));
+        for (ThumbnailSize size : sizes) {
+            image = scale(image, size.maxDimension);
+            BufferedImage thumbnail = image;
+            thumbnailCache.put(fileName(key, size), out -> {
+                try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+                    writeJpeg(thumbnail, output);
+                }
+            });
+        }
+        return true;
+    }
+    
+    // Reads every n-th pixel so a 24 MP photo is never fully materialised; the result is still at least
+    // as large as the biggest thumbnail
+    private static BufferedImage decode(Path path, int minDimension) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(path.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_SOURCE_PIXELS) {
+                    log.warn("Skipping thumbnails for {}: {}x{} is too large", path.getFileName(), width, height);
+                    return null;
+                }
+                
+                int step = Math.max(1, Math.max(width, height) / minDimension);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+    
+    // Always returns an opaque RGB image, as JPEG has no alpha channel
+    private static BufferedImage scale(BufferedImage source, int maxDimension) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double ratio = Math.min(1.0, (double) maxDimension / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+        if (ratio == 1.0 && source.getType() == BufferedImage.TYPE_INT_RGB) {
+            return source;
+        }
+        
+        BufferedImage target = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, targetWidth, targetHeight);
+            graphics.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+    
+    private void writeJpeg(BufferedImage image, ImageOutputStream output) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+    
+    private static String fileName(String key, ThumbnailSize size) {
+        return key + "-" + size.pathSegment() + ".jpg";
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    public enum ThumbnailSize {
+        SMALL(160),
+        MEDIUM(480),
+        LARGE(1024);
+        
+        private final int maxDimension;
+        
+        ThumbnailSize(int maxDimension) {
+            this.maxDimension = maxDimension;
+        }
+        
+        public String pathSegment() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+        
+        public static ThumbnailSize fromPathSegment(String segment) {
+            for (ThumbnailSize size : values()) {
+                if (size.pathSegment().equals(segment)) {
+                    return size;
+                }
+            }
+            throw new RuntimeException("Unknown thumbnail size: " + segment);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.enterprise.carshare.service;
+
+import com.enterprise.carshare.domain.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Pre-generates thumbnails for the photos taken at checkout and check-in, so trip galleries load from
+ * the cache. If the thumbnail pool is full the event is retried later; photos already done are skipped.
+ */
+@Component
+@RequiredArgsConstructor
+public class TripPhotoThumbnailHandler implements OutboxEventHandler {
+    
+    private final ThumbnailService thumbnailService;
+    
+    @Override
+    public boolean supports(String eventType) {
+        return BookingEvents.CHECKED_OUT.equals(eventType) || BookingEvents.CHECKED_IN.equals(eventType);
+    }
+    
+    @Override
+    public void handle(OutboxEvent event) {
+        if (!(event.getPayload().get("photos") instanceof List<?> photos)) {
+            return;
+        }
+        for (Object photo : photos) {
+            String key = BlobStorageService.keyOf(String.valueOf(photo));
+            if (key != null) {
+                thumbnailService.generateAsync(key);
+            }
+        }
+    }
+}
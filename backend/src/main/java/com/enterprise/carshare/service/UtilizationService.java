@@ -0,0 +1,378 @@
+package com.enterprise.carshare.service;
+
+import com.enterprise.carshare.dto.UtilizationGroupDto;
+import com.enterprise.carshare.dto.UtilizationReportDto;
+import com.enterprise.carshare.repository.BookingRepository;
+import com.enterprise.carshare.repository.BookingRepositoryCustom;
+import com.enterprise.carshare.repository.VehicleRepository;
+import com.enterprise.carshare.repository.VehicleUtilizationView;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Fleet utilization by vehicle, department or vehicle type: booked against available hours, idle gaps
+ * between bookings and peak concurrency. A single range query streams every booked interval into
+ * primitive arrays, each vehicle is swept independently on a dedicated fork/join pool, and finished
+ * reports are cached per period and grouping.
+ */
+@Slf4j
+@Service
+@Timed(value = "carshare.service", histogram = true)
+public class UtilizationService {
+    
+    private static final String UNASSIGNED = "Unassigned";
+    private static final BigDecimal SECONDS_PER_HOUR = BigDecimal.valueOf(3600);
+    // Below this many events a sequential sort beats splitting the work
+    private static final int PARALLEL_SORT_THRESHOLD = 1 << 16;
+    
+    private final BookingRepository bookingRepository;
+    private final VehicleRepository vehicleRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ForkJoinPool pool;
+    private final AsyncCache<ReportKey, UtilizationReportDto> reports;
+    private final int maxDays;
+    
+    public UtilizationService(
+            BookingRepository bookingRepository,
+            VehicleRepository vehicleRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.reports.utilization.parallelism:0}") int parallelism,
+            @Value("${app.reports.utilization.max-days:366}") int maxDays,
+            @Value("${app.reports.utilization.cache-size:64}") long cacheSize,
+            @Value("${app.reports.utilization.cache-ttl:10m}") Duration cacheTtl) {
+        this.bookingRepository = bookingRepository;
+        this.vehicleRepository = vehicleRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.reports = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                // Reports are computed on the pool rather than inside the cache's map lock
+                .executor(pool)
+                .buildAsync();
+        this.maxDays = maxDays;
+    }
+    
+    /**
+     * Utilization for the period, inclusive of both dates. Concurrent requests for the same period and
+     * grouping share one computation, and failed computations are not cached.
+     */
+    public UtilizationReportDto getUtilization(LocalDate from, LocalDate to, GroupBy groupBy) {
+        if (to.isBefore(from)) {
+            throw new RuntimeException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            throw new RuntimeException("Utilization period is limited to " + maxDays + " days");
+        }
+        try {
+            return reports.get(new ReportKey(from, to, groupBy), this::compute).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+    
+    private UtilizationReportDto compute(ReportKey key) {
+        long started = System.nanoTime();
+        long periodStart = key.from().atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+        long periodEnd = key.to().plusDays(1).atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+        
+        FleetIntervals fleet = readOnlyTransaction.execute(status -> load(key.from(), key.to()));
+        int vehicleCount = fleet.vehicles().size();
+        VehicleStats[] stats = new VehicleStats[vehicleCount];
+        pool.submit(() -> IntStream.range(0, vehicleCount).parallel()
+                .forEach(i -> stats[i] = sweepVehicle(fleet, i, periodStart, periodEnd)))
+                .join();
+        
+        Map<String, List<Integer>> members = key.groupBy() == GroupBy.VEHICLE ? new LinkedHashMap<>() : new TreeMap<>();
+        for (int i = 0; i < vehicleCount; i++) {
+            members.computeIfAbsent(groupKey(fleet.vehicles().get(i), key.groupBy()), k -> new ArrayList<>()).add(i);
+        }
+        List<UtilizationGroupDto> groups = pool.submit(() -> members.entrySet().parallelStream()
+                .map(entry -> summarize(entry.getKey(), groupLabel(fleet, entry.getValue(), key.groupBy(), entry.getKey()),
+                        entry.getValue().stream().mapToInt(Integer::intValue).toArray(), fleet, stats, periodEnd))
+                .toList())
+                .join();
+        UtilizationGroupDto total = pool.submit(() -> summarize("fleet", "Fleet",
+                IntStream.range(0, vehicleCount).toArray(), fleet, stats, periodEnd))
+                .join();
+        
+        log.info("Computed utilization {}..{} by {} over {} vehicles and {} bookings in {} ms", key.from(), key.to(),
+                key.groupBy(), vehicleCount, fleet.size(), (System.nanoTime() - started) / 1_000_000);
+        return UtilizationReportDto.builder()
+                .periodStart(key.from())
+                .periodEnd(key.to())
+                .groupBy(key.groupBy().name().toLowerCase(Locale.ROOT))
+                .fleet(total)
+                .groups(groups)
+                .generatedAt(LocalDateTime.now())
+                .build();
+    }
+    
+    private FleetIntervals load(LocalDate from, LocalDate to) {
+        List<VehicleUtilizationView> vehicles = vehicleRepository.findAllForUtilization();
+        IntervalLoader loader = new IntervalLoader(vehicles);
+        bookingRepository.forEachBookedInterval(from.atStartOfDay(), to.plusDays(1).atStartOfDay(), loader);
+        return loader.toFleetIntervals();
+    }
+    
+    // The vehicle's own intervals are contiguous and ordered by start, so overlapping bookings merge in
+    // one pass and the gaps between merged runs are the idle periods
+    private static VehicleStats sweepVehicle(FleetIntervals fleet, int vehicle, long periodStart, long periodEnd) {
+        long windowStart = periodStart;
+        LocalDateTime createdAt = fleet.vehicles().get(vehicle).getCreatedAt();
+        if (createdAt != null) {
+            windowStart = Math.max(windowStart, createdAt.toEpochSecond(ZoneOffset.UTC));
+        }
+        if (windowStart >= periodEnd) {
+            return new VehicleStats(periodEnd, 0, 0, 0, 0, 0);
+        }
+        
+        long[] starts = fleet.starts();
+        long[] ends = fleet.ends();
+        int first = fleet.first()[vehicle];
+        int last = first + fleet.count()[vehicle];
+        long booked = 0;
+        long bookings = 0;
+        long idleGaps = 0;
+        long longestIdleGap = 0;
+        long cursor = windowStart;
+        boolean open = false;
+        long runStart = 0;
+        long runEnd = 0;
+        for (int k = first; k < last; k++) {
+            long start = Math.max(starts[k], windowStart);
+            long end = Math.min(ends[k], periodEnd);
+            if (end <= start) {
+                continue;
+            }
+            bookings++;
+            if (open && start <= runEnd) {
+                runEnd = Math.max(runEnd, end);
+                continue;
+            }
+            if (open) {
+                booked += runEnd - runStart;
+                cursor = runEnd;
+            }
+            long gap = start - cursor;
+            if (gap > 0) {
+                idleGaps++;
+                longestIdleGap = Math.max(longestIdleGap, gap);
+            }
+            runStart = start;
+            runEnd = end;
+            open = true;
+        }
+        if (open) {
+            booked += runEnd - runStart;
+            cursor = runEnd;
+        }
+        long gap = periodEnd - cursor;
+        if (gap > 0) {
+            idleGaps++;
+            longestIdleGap = Math.max(longestIdleGap, gap);
+        }
+        return new VehicleStats(windowStart, periodEnd - windowStart, booked, bookings, idleGaps, longestIdleGap);
+    }
+    
+    private static UtilizationGroupDto summarize(String key, String label, int[] vehicles, FleetIntervals fleet,
+                                                 VehicleStats[] stats, long periodEnd) {
+        int activeVehicles = 0;
+        long available = 0;
+        long booked = 0;
+        long bookings = 0;
+        long idleGaps = 0;
+        long longestIdleGap = 0;
+        for (int vehicle : vehicles) {
+            VehicleStats vehicleStats = stats[vehicle];
+            if (vehicleStats.availableSeconds() > 0) {
+                activeVehicles++;
+            }
+            available += vehicleStats.availableSeconds();
+            booked += vehicleStats.bookedSeconds();
+            bookings += vehicleStats.bookingCount();
+            idleGaps += vehicleStats.idleGapCount();
+            longestIdleGap = Math.max(longestIdleGap, vehicleStats.longestIdleGapSeconds());
+        }
+        
+        // Sweep line: each booking contributes a start and an end event, packed as (time << 1 | kind)
+        // so one primitive sort orders them, with ends before starts at the same instant
+        long[] events = new long[(int) (bookings * 2)];
+        int size = 0;
+        for (int vehicle : vehicles) {
+            long windowStart = stats[vehicle].windowStart();
+            int first = fleet.first()[vehicle];
+            int last = first + fleet.count()[vehicle];
+            for (int k = first; k < last; k++) {
+                long start = Math.max(fleet.starts()[k], windowStart);
+                long end = Math.min(fleet.ends()[k], periodEnd);
+                if (end > start) {
+                    events[size++] = start << 1 | 1;
+                    events[size++] = end << 1;
+                }
+            }
+        }
+        if (size >= PARALLEL_SORT_THRESHOLD) {
+            Arrays.parallelSort(events, 0, size);
+        } else {
+            Arrays.sort(events, 0, size);
+        }
+        int active = 0;
+        int peak = 0;
+        long peakAt = 0;
+        for (int i = 0; i < size; i++) {
+            active += (events[i] & 1) == 1 ? 1 : -1;
+            if (active > peak) {
+                peak = active;
+                peakAt = events[i] >> 1;
+            }
+        }
+        
+        return UtilizationGroupDto.builder()
+                .key(key)
+                .label(label)
+                .vehicleCount(activeVehicles)
+                .bookingCount(bookings)
+                .bookedHours(hours(booked))
+                .availableHours(hours(available))
+                .utilizationPercent(available > 0
+                        ? BigDecimal.valueOf(booked * 100).divide(BigDecimal.valueOf(available), 1, RoundingMode.HALF_UP)
+                        : BigDecimal.ZERO)
+                .idleGapCount(idleGaps)
+                .longestIdleGapHours(hours(longestIdleGap))
+                .peakConcurrency(peak)
+                .peakAt(peak > 0 ? LocalDateTime.ofEpochSecond(peakAt, 0, ZoneOffset.UTC) : null)
+                .build();
+    }
+    
+    private static String groupKey(VehicleUtilizationView vehicle, GroupBy groupBy) {
+        return switch (groupBy) {
+            case VEHICLE -> vehicle.getId().toString();
+            case DEPARTMENT -> vehicle.getDepartmentOwner() != null ? vehicle.getDepartmentOwner() : UNASSIGNED;
+            case TYPE -> vehicle.getVehicleType().name();
+        };
+    }
+    
+    private static String groupLabel(FleetIntervals fleet, List<Integer> members, GroupBy groupBy, String key) {
+        return groupBy == GroupBy.VEHICLE ? fleet.vehicles().get(members.get(0)).getPlateNumber() : key;
+    }
+    
+    private static BigDecimal hours(long seconds) {
+        return BigDecimal.valueOf(seconds).divide(SECONDS_PER_HOUR, 2, RoundingMode.HALF_UP);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+    
+    public enum GroupBy {
+        VEHICLE,
+        DEPARTMENT,
+        TYPE;
+        
+        public static GroupBy from(String value) {
+            for (GroupBy groupBy : values()) {
+                if (groupBy.name().equalsIgnoreCase(value)) {
+                    return groupBy;
+                }
+            }
+            throw new RuntimeException("Unsupported grouping: " + value);
+        }
+    }
+    
+    private record ReportKey(LocalDate from, LocalDate to, GroupBy groupBy) {
+    }
+    
+    private record VehicleStats(long windowStart, long availableSeconds, long bookedSeconds, long bookingCount,
+                                long idleGapCount, long longestIdleGapSeconds) {
+    }
+    
+    // Intervals of vehicle i are starts/ends[first[i] .. first[i] + count[i]), in start order
+    private record FleetIntervals(List<VehicleUtilizationView> vehicles, int[] first, int[] count,
+                                  long[] starts, long[] ends, int size) {
+    }
+    
+    // Rows arrive ordered by vehicle id, so each vehicle's intervals land in one contiguous run
+    private static final class IntervalLoader implements BookingRepositoryCustom.BookedIntervalConsumer {
+        
+        private final List<VehicleUtilizationView> vehicles;
+        private final Map<Long, Integer> indexById;
+        private final int[] first;
+        private final int[] count;
+        private long[] starts = new long[1024];
+        private long[] ends = new long[1024];
+        private int size;
+        private long currentVehicleId = Long.MIN_VALUE;
+        private int currentIndex = -1;
+        
+        private IntervalLoader(List<VehicleUtilizationView> vehicles) {
+            this.vehicles = vehicles;
+            this.indexById = new HashMap<>(vehicles.size() * 2);
+            for (int i = 0; i < vehicles.size(); i++) {
+                indexById.put(vehicles.get(i).getId(), i);
+            }
+            this.first = new int[vehicles.size()];
+            this.count = new int[vehicles.size()];
+        }
+        
+        @Override
+        public void accept(long vehicleId, long startEpochSecond, long endEpochSecond) {
+            if (vehicleId != currentVehicleId) {
+                currentVehicleId = vehicleId;
+                Integer index = indexById.get(vehicleId);
+                currentIndex = index != null ? index : -1;
+                if (currentIndex >= 0) {
+                    first[currentIndex] = size;
+                }
+            }
+            // A vehicle created after the vehicle list was read
+            if (currentIndex < 0) {
+                return;
+            }
+            if (size == starts.length) {
+                int capacity = size + (size >> 1);
+                starts = Arrays.copyOf(starts, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+            }
+            starts[size] = startEpochSecond;
+            ends[size] = endEpochSecond;
+            size++;
+            count[currentIndex]++;
+        }
+        
+        private FleetIntervals toFleetIntervals() {
+            return new FleetIntervals(vehicles, first, count, starts, ends, size);
+        }
+    }
+}
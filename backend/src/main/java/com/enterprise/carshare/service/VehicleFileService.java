@@ -0,0 +1,142 @@
+package com.enterprise.carshare.service;
+
+import com.enterprise.carshare.domain.Vehicle;
+import com.enterprise.carshare.domain.VehicleDocument;
+import com.enterprise.carshare.domain.VehiclePhoto;
+import com.enterprise.carshare.dto.VehicleDocumentDto;
+import com.enterprise.carshare.dto.VehiclePhotoDto;
+import com.enterprise.carshare.repository.UserRepository;
+import com.enterprise.carshare.repository.VehicleDocumentRepository;
+import com.enterprise.carshare.repository.VehiclePhotoRepository;
+import com.enterprise.carshare.repository.VehicleRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Photos and documents attached to vehicles. The bytes live in the blob store and the rows only
+ * reference them by content address, so the same file attached twice is stored once.
+ */
+@Service
+@RequiredArgsConstructor
+@Timed(value = "carshare.service", histogram = true)
+public class VehicleFileService {
+    
+    private static final int MAX_FILE_NAME_LENGTH = 255;
+    
+    private final VehiclePhotoRepository vehiclePhotoRepository;
+    private final VehicleDocumentRepository vehicleDocumentRepository;
+    private final VehicleRepository vehicleRepository;
+    private final UserRepository userRepository;
+    private final BlobStorageService blobStorageService;
+    
+    public VehiclePhotoDto addPhoto(Long vehicleId, Long uploaderId, VehiclePhoto.PhotoType photoType,
+                                    InputStream content) throws IOException {
+        Vehicle vehicle = findVehicle(vehicleId);
+        BlobStorageService.StoredBlob blob = blobStorageService.store(content, type -> type.startsWith("image/"));
+        if (blob == null) {
+            throw new RuntimeException("Photos must be JPEG, PNG, GIF or WebP images");
+        }
+        
+        VehiclePhoto photo = VehiclePhoto.builder()
+                .vehicle(vehicle)
+                .photoPath(blob.key())
+                .photoType(photoType != null ? photoType : VehiclePhoto.PhotoType.OTHER)
+                .uploadedBy(userRepository.getReferenceById(uploaderId))
+                .uploadedAt(LocalDateTime.now())
+                .build();
+        return mapToDto(vehiclePhotoRepository.save(photo));
+    }
+    
+    public List<VehiclePhotoDto> getPhotos(Long vehicleId) {
+        return vehiclePhotoRepository.findByVehicleIdOrderByUploadedAtDesc(vehicleId).stream()
+                .map(this::mapToDto)
+                .toList();
+    }
+    
+    // Only the row is removed; the blob may be shared with other rows and is left in place
+    @Transactional
+    public void deletePhoto(Long vehicleId, Long photoId) {
+        VehiclePhoto photo = vehiclePhotoRepository.findByIdAndVehicleId(photoId, vehicleId)
+                .orElseThrow(() -> new RuntimeException("Photo not found"));
+        vehiclePhotoRepository.delete(photo);
+    }
+    
+    public VehicleDocumentDto addDocument(Long vehicleId, Long uploaderId, VehicleDocument.DocumentType documentType,
+                                          String originalFileName, InputStream content) throws IOException {
+        Vehicle vehicle = findVehicle(vehicleId);
+        BlobStorageService.StoredBlob blob = blobStorageService.store(content);
+        
+        VehicleDocument document = VehicleDocument.builder()
+                .vehicle(vehicle)
+                .documentType(documentType)
+                .filePath(blob.key())
+                .fileName(cleanFileName(originalFileName))
+                .fileSize(blob.size())
+                .uploadedBy(userRepository.getReferenceById(uploaderId))
+                .uploadedAt(LocalDateTime.now())
+                .build();
+        return mapToDto(vehicleDocumentRepository.save(document));
+    }
+    
+    public List<VehicleDocumentDto> getDocuments(Long vehicleId, VehicleDocument.DocumentType documentType) {
+        List<VehicleDocument> documents = documentType != null
+                ? vehicleDocumentRepository.findByVehicleIdAndDocumentTypeOrderByUploadedAtDesc(vehicleId, documentType)
+                : vehicleDocumentRepository.findByVehicleIdOrderByUploadedAtDesc(vehicleId);
+        return documents.stream()
+                .map(this::mapToDto)
+                .toList();
+    }
+    
+    @Transactional
+    public void deleteDocument(Long vehicleId, Long documentId) {
+        VehicleDocument document = vehicleDocumentRepository.findByIdAndVehicleId(documentId, vehicleId)
+                .orElseThrow(() -> new RuntimeException("Document not found"));
+        vehicleDocumentRepository.delete(document);
+    }
+    
+    private Vehicle findVehicle(Long vehicleId) {
+        return vehicleRepository.findById(vehicleId)
+                .orElseThrow(() -> new RuntimeException("Vehicle not found"));
+    }
+    
+    private static String cleanFileName(String originalFileName) {
+        String fileName = StringUtils.getFilename(StringUtils.cleanPath(
+                originalFileName != null ? originalFileName : ""));
+        if (!StringUtils.hasText(fileName)) {
+            return "document";
+        }
+        return fileName.length() <= MAX_FILE_NAME_LENGTH ? fileName : fileName.substring(0, MAX_FILE_NAME_LENGTH);
+    }
+    
+    private VehiclePhotoDto mapToDto(VehiclePhoto photo) {
+        return VehiclePhotoDto.builder()
+                .id(photo.getId())
+                .vehicleId(photo.getVehicle().getId())
+                .photoType(photo.getPhotoType())
+                .url(BlobStorageService.urlOf(photo.getPhotoPath()))
+                .uploadedById(photo.getUploadedBy() != null ? photo.getUploadedBy().getId() : null)
+                .uploadedAt(photo.getUploadedAt())
+                .build();
+    }
+    
+    private VehicleDocumentDto mapToDto(VehicleDocument document) {
+        return VehicleDocumentDto.builder()
+                .id(document.getId())
+                .vehicleId(document.getVehicle().getId())
+                .documentType(document.getDocumentType())
+                .fileName(document.getFileName())
+                .fileSize(document.getFileSize())
+                .url(BlobStorageService.urlOf(document.getFilePath()))
+                .uploadedById(document.getUploadedBy() != null ? document.getUploadedBy().getId() : null)
+                .uploadedAt(document.getUploadedAt())
+                .build();
+    }
+}
@@ -0,0 +1,288 @@
+package com.enterprise.carshare.service;
+
+import com.enterprise.carshare.domain.Vehicle;
+import com.enterprise.carshare.dto.VehicleCreateRequest;
+import com.enterprise.carshare.dto.VehicleImportResponse;
+import com.enterprise.carshare.dto.VehicleImportRowError;
+import com.enterprise.carshare.repository.VehicleRepository;
+import com.enterprise.carshare.util.CsvReader;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Imports vehicles from CSV. Rows are parsed and validated as they are read, checked for plate and
+ * VIN clashes a chunk at a time with set-based queries, and inserted in one transaction per chunk
+ * using JDBC batching. Rows that fail are reported with their line number and never block the rest.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Timed(value = "carshare.service", histogram = true)
+public class VehicleImportService {
+    
+    private static final Map<String, BiConsumer<VehicleCreateRequest, String>> COLUMNS = columns();
+    
+    private static final Set<String> REQUIRED_COLUMNS =
+            Set.of("platenumber", "brand", "model", "year", "vehicletype", "fueltype", "capacity");
+    
+    private final VehicleRepository vehicleRepository;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    
+    @Value("${app.vehicles.import.chunk-size:500}")
+    private int chunkSize;
+    
+    @Value("${app.vehicles.import.max-rows:20000}")
+    private int maxRows;
+    
+    public VehicleImportResponse importCsv(InputStream input) throws IOException {
+        CsvReader csv = new CsvReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        List<Column> columns = readHeader(csv);
+        
+        ImportState state = new ImportState();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        List<String> record;
+        while ((record = nextRecord(csv, state)) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            if (state.rows == maxRows) {
+                state.errors.add(new VehicleImportRowError(csv.getRecordLine(), null,
+                        "Row limit of " + maxRows + " reached, this and later rows were not imported"));
+                break;
+            }
+            
+            state.rows++;
+            ImportRow row = parseRow(csv.getRecordLine(), record, columns, state);
+            if (row != null) {
+                chunk.add(row);
+            }
+            if (chunk.size() == chunkSize) {
+                insertChunk(chunk, state);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            insertChunk(chunk, state);
+        }
+        
+        state.errors.sort(Comparator.comparingLong(VehicleImportRowError::getLine));
+        log.info("Vehicle import finished: {} rows, {} imported, {} failed",
+                state.rows, state.imported, state.rows - state.imported);
+        return VehicleImportResponse.builder()
+                .rows(state.rows)
+                .imported(state.imported)
+                .failed(state.rows - state.imported)
+                .errors(state.errors)
+                .build();
+    }
+    
+    // A malformed record leaves the reader out of step with the file, so reading stops there. Earlier
+    // chunks are already committed, so the failure is reported with them rather than thrown.
+    private static List<String> nextRecord(CsvReader csv, ImportState state) throws IOException {
+        try {
+            return csv.readRecord();
+        } catch (RuntimeException e) {
+            state.errors.add(new VehicleImportRowError(csv.getRecordLine(), null,
+                    e.getMessage() + ", this and later rows were not imported"));
+            return null;
+        }
+    }
+    
+    private List<Column> readHeader(CsvReader csv) throws IOException {
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            throw new RuntimeException("CSV file is empty");
+        }
+        
+        List<Column> columns = new ArrayList<>(header.size());
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < header.size(); i++) {
+            // Strip a UTF-8 byte order mark left by spreadsheet exports
+            String name = i == 0 ? header.get(i).replace("\uFEFF", "") : header.get(i);
+            String key = normalizeColumn(name);
+            BiConsumer<VehicleCreateRequest, String> setter = COLUMNS.get(key);
+            if (setter == null) {
+                throw new RuntimeException("Unknown CSV column: " + name.trim());
+            }
+            if (!seen.add(key)) {
+                throw new RuntimeException("Duplicate CSV column: " + name.trim());
+            }
+            columns.add(new Column(name.trim(), setter));
+        }
+        
+        Set<String> missing = new HashSet<>(REQUIRED_COLUMNS);
+        missing.removeAll(seen);
+        if (!missing.isEmpty()) {
+            throw new RuntimeException("CSV is missing required columns: " + String.join(", ", missing));
+        }
+        return columns;
+    }
+    
+    private ImportRow parseRow(long line, List<String> record, List<Column> columns, ImportState state) {
+        if (record.size() != columns.size()) {
+            state.errors.add(new VehicleImportRowError(line, null,
+                    "Expected " + columns.size() + " fields but found " + record.size()));
+            return null;
+        }
+        
+        VehicleCreateRequest request = new VehicleCreateRequest();
+        List<String> problems = new ArrayList<>();
+        for (int i = 0; i < columns.size(); i++) {
+            String value = record.get(i).trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            try {
+                columns.get(i).setter().accept(request, value);
+            } catch (RuntimeException e) {
+                problems.add("Invalid " + columns.get(i).name() + " '" + value + "'");
+            }
+        }
+        for (ConstraintViolation<VehicleCreateRequest> violation : validator.validate(request)) {
+            problems.add(violation.getMessage());
+        }
+        
+        if (problems.isEmpty()) {
+            // Duplicates within the file are caught here, clashes with stored vehicles per chunk
+            Long firstPlateLine = state.plateLines.putIfAbsent(request.getPlateNumber(), line);
+            if (firstPlateLine != null) {
+                problems.add("Plate number already appears on line " + firstPlateLine);
+            } else if (request.getVin() != null) {
+                Long firstVinLine = state.vinLines.putIfAbsent(request.getVin(), line);
+                if (firstVinLine != null) {
+                    problems.add("VIN already appears on line " + firstVinLine);
+                }
+            }
+        }
+        
+        if (!problems.isEmpty()) {
+            state.errors.add(new VehicleImportRowError(line, request.getPlateNumber(), String.join("; ", problems)));
+            return null;
+        }
+        return new ImportRow(line, request);
+    }
+    
+    private void insertChunk(List<ImportRow> chunk, ImportState state) {
+        Set<String> plates = new HashSet<>();
+        Set<String> vins = new HashSet<>();
+        for (ImportRow row : chunk) {
+            plates.add(row.request().getPlateNumber());
+            if (row.request().getVin() != null) {
+                vins.add(row.request().getVin());
+            }
+        }
+        Set<String> existingPlates = new HashSet<>(vehicleRepository.findExistingPlateNumbers(plates));
+        Set<String> existingVins = vins.isEmpty()
+                ? Set.of()
+                : new HashSet<>(vehicleRepository.findExistingVins(vins));
+        
+        List<ImportRow> accepted = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            if (existingPlates.contains(row.request().getPlateNumber())) {
+                state.errors.add(rowError(row, "Vehicle with plate number already exists"));
+            } else if (row.request().getVin() != null && existingVins.contains(row.request().getVin())) {
+                state.errors.add(rowError(row, "Vehicle with VIN already exists"));
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+        
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Imported vehicles would only crowd the second-level cache, and the persistence
+                // context is cleared per chunk so a large import runs in constant memory
+                entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+                vehicleRepository.saveAll(accepted.stream()
+                        .map(row -> VehicleService.newVehicle(row.request()))
+                        .toList());
+                vehicleRepository.flush();
+                entityManager.clear();
+            });
+            state.imported += accepted.size();
+        } catch (DataIntegrityViolationException e) {
+            // Another writer claimed a plate or VIN after the check; the chunk was rolled back as a whole
+            log.warn("Vehicle import chunk starting on line {} rolled back: {}", accepted.get(0).line(), e.getMessage());
+            for (ImportRow row : accepted) {
+                state.errors.add(rowError(row, "Not imported: a plate number or VIN in this chunk was taken concurrently"));
+            }
+        }
+    }
+    
+    private static VehicleImportRowError rowError(ImportRow row, String message) {
+        return new VehicleImportRowError(row.line(), row.request().getPlateNumber(), message);
+    }
+    
+    // "plateNumber", "plate_number" and "Plate Number" all name the same column
+    private static String normalizeColumn(String name) {
+        return name.trim().replaceAll("[\\s_-]", "").toLowerCase(Locale.ROOT);
+    }
+    
+    private static Map<String, BiConsumer<VehicleCreateRequest, String>> columns() {
+        Map<String, BiConsumer<VehicleCreateRequest, String>> columns = new LinkedHashMap<>();
+        columns.put("platenumber", VehicleCreateRequest::setPlateNumber);
+        columns.put("brand", VehicleCreateRequest::setBrand);
+        columns.put("model", VehicleCreateRequest::setModel);
+        columns.put("year", (request, value) -> request.setYear(Integer.parseInt(value)));
+        columns.put("color", VehicleCreateRequest::setColor);
+        columns.put("vehicletype", (request, value) ->
+                request.setVehicleType(Vehicle.VehicleType.valueOf(value.toUpperCase(Locale.ROOT))));
+        columns.put("fueltype", (request, value) ->
+                request.setFuelType(Vehicle.FuelType.valueOf(value.toUpperCase(Locale.ROOT))));
+        columns.put("capacity", (request, value) -> request.setCapacity(Integer.parseInt(value)));
+        columns.put("vin", VehicleCreateRequest::setVin);
+        columns.put("departmentowner", VehicleCreateRequest::setDepartmentOwner);
+        columns.put("costcenter", VehicleCreateRequest::setCostCenter);
+        columns.put("lastservicedate", (request, value) -> request.setLastServiceDate(LocalDate.parse(value)));
+        columns.put("nextservicedue", (request, value) -> request.setNextServiceDue(LocalDate.parse(value)));
+        columns.put("nextservicemileage", (request, value) -> request.setNextServiceMileage(Long.parseLong(value)));
+        columns.put("insuranceexpirydate", (request, value) -> request.setInsuranceExpiryDate(LocalDate.parse(value)));
+        columns.put("registrationexpirydate", (request, value) ->
+                request.setRegistrationExpiryDate(LocalDate.parse(value)));
+        return columns;
+    }
+    
+    private record Column(String name, BiConsumer<VehicleCreateRequest, String> setter) {
+    }
+    
+    private record ImportRow(long line, VehicleCreateRequest request) {
+    }
+    
+    private static final class ImportState {
+        private int rows;
+        private int imported;
+        private final List<VehicleImportRowError> errors = new ArrayList<>();
+        private final Map<String, Long> plateLines = new HashMap<>();
+        private final Map<String, Long> vinLines = new HashMap<>();
+    }
+}
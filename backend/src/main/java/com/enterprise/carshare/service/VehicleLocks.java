@@ -0,0 +1,83 @@
+package com.enterprise.carshare.service;
+
+import com.enterprise.carshare.exception.BookingConflictException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped, fair in-JVM locks keyed by vehicle id. Requests admitting bookings for the same vehicle
+ * queue here instead of racing each other into the database exclusion constraint.
+ */
+@Component
+public class VehicleLocks {
+    
+    private final ReentrantLock[] stripes;
+    private final long timeoutMillis;
+    
+    public VehicleLocks(
+            @Value("${app.booking.lock-stripes:256}") int stripeCount,
+            @Value("${app.booking.lock-timeout-ms:5000}") long timeoutMillis) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock(true);
+        }
+        this.timeoutMillis = timeoutMillis;
+    }
+    
+    public <T> T withLock(Long vehicleId, Supplier<T> action) {
+        ReentrantLock lock = stripeFor(vehicleId);
+        acquire(lock);
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Runs the action holding the locks of all the given vehicles. Stripes are taken once each and in
+     * index order, so callers locking overlapping vehicle sets cannot deadlock.
+     */
+    public <T> T withLocks(Collection<Long> vehicleIds, Supplier<T> action) {
+        int[] indexes = vehicleIds.stream().mapToInt(this::stripeIndex).distinct().sorted().toArray();
+        int held = 0;
+        try {
+            for (int index : indexes) {
+                acquire(stripes[index]);
+                held++;
+            }
+            return action.get();
+        } finally {
+            for (int i = held - 1; i >= 0; i--) {
+                stripes[indexes[i]].unlock();
+            }
+        }
+    }
+    
+    private void acquire(ReentrantLock lock) {
+        try {
+            if (!lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new BookingConflictException("Vehicle is being booked by another request, please retry");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BookingConflictException("Interrupted while waiting for vehicle lock", e);
+        }
+    }
+    
+    private ReentrantLock stripeFor(Long vehicleId) {
+        return stripes[stripeIndex(vehicleId)];
+    }
+    
+    private int stripeIndex(Long vehicleId) {
+        int hash = Long.hashCode(vehicleId);
+        hash ^= (hash >>> 16);
+        return hash & (stripes.length - 1);
+    }
+}
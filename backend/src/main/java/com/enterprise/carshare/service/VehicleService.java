@@ -1,12 +1,19 @@
 package com.enterprise.carshare.service;
 
 import com.enterprise.carshare.domain.Vehicle;
+import com.enterprise.carshare.dto.CursorPageResponse;
 import com.enterprise.carshare.dto.PageResponse;
 import com.enterprise.carshare.dto.VehicleCreateRequest;
 import com.enterprise.carshare.dto.VehicleDto;
 import com.enterprise.carshare.mapper.VehicleMapper;
+import com.enterprise.carshare.repository.MaintenanceTaskRepository;
 import com.enterprise.carshare.repository.VehicleRepository;
+import com.enterprise.carshare.repository.VersionView;
+import com.enterprise.carshare.util.ETags;
+import com.enterprise.carshare.util.PageCursor;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -14,14 +21,22 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "carshare.service", histogram = true)
 public class VehicleService {
     
     private final VehicleRepository vehicleRepository;
+    private final MaintenanceTaskRepository maintenanceTaskRepository;
     private final VehicleMapper vehicleMapper;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ApplicationEventPublisher applicationEventPublisher;
     
     @Transactional
     public VehicleDto createVehicle(VehicleCreateRequest request) {
@@ -29,7 +44,13 @@ public class VehicleService {
             throw new RuntimeException("Vehicle with plate number already exists");
         }
         
-        Vehicle vehicle = Vehicle.builder()
+        Vehicle vehicle = newVehicle(request);
+        vehicle = vehicleRepository.save(vehicle);
+        return vehicleMapper.toDto(vehicle);
+    }
+    
+    static Vehicle newVehicle(VehicleCreateRequest request) {
+        return Vehicle.builder()
                 .plateNumber(request.getPlateNumber())
                 .brand(request.getBrand())
                 .model(request.getModel())
@@ -43,14 +64,12 @@ public class VehicleService {
                 .costCenter(request.getCostCenter())
                 .lastServiceDate(request.getLastServiceDate())
                 .nextServiceDue(request.getNextServiceDue())
+                .nextServiceMileage(request.getNextServiceMileage())
                 .insuranceExpiryDate(request.getInsuranceExpiryDate())
                 .registrationExpiryDate(request.getRegistrationExpiryDate())
                 .status(Vehicle.VehicleStatus.AVAILABLE)
                 .currentMileage(0L)
                 .build();
-        
-        vehicle = vehicleRepository.save(vehicle);
-        return vehicleMapper.toDto(vehicle);
     }
     
     public VehicleDto getVehicleById(Long id) {
@@ -59,6 +78,19 @@ public class VehicleService {
         return vehicleMapper.toDto(vehicle);
     }
     
+    // Vehicles are read through the second-level cache, so the tag costs no query; null when not found
+    public String getVehicleETag(Long id) {
+        return vehicleRepository.findById(id)
+                .map(vehicle -> ETags.of("vehicle", vehicle.getId(), vehicle.getUpdatedAt()))
+                .orElse(null);
+    }
+    
+    // Covers every page and ordering of the vehicle list, so a single change invalidates them all
+    public String getVehiclesETag() {
+        VersionView version = vehicleRepository.findVersion();
+        return ETags.of("vehicles", version.getTotal(), version.getChecksum());
+    }
+    
     public PageResponse<VehicleDto> getAllVehicles(int page, int size, String sortBy, String direction) {
         Sort sort = direction.equalsIgnoreCase("desc") 
                 ? Sort.by(sortBy).descending() 
@@ -81,12 +113,29 @@ public class VehicleService {
                 .build();
     }
     
+    public CursorPageResponse<VehicleDto> getAllVehiclesAfter(String after, int limit, boolean includeTotal) {
+        long afterId = after != null ? PageCursor.decode(after).getId() : 0L;
+        int pageLimit = PageCursor.clampLimit(limit);
+        
+        List<Vehicle> rows = vehicleRepository.findByIdGreaterThanOrderByIdAsc(
+                afterId, PageRequest.of(0, pageLimit + 1));
+        Long total = includeTotal ? vehicleRepository.count() : null;
+        
+        return CursorPageResponse.of(rows, pageLimit, vehicleMapper::toDto,
+                vehicle -> PageCursor.encode(vehicle.getId(), vehicle.getId()), total);
+    }
+    
     public PageResponse<VehicleDto> getAvailableVehicles(
-            int page, int size, String department, Vehicle.VehicleType vehicleType) {
+            int page, int size, String department, Vehicle.VehicleType vehicleType, Integer minCapacity,
+            LocalDateTime from, LocalDateTime to) {
+        if (from != null || to != null) {
+            return getVehiclesAvailableBetween(page, size, department, vehicleType, minCapacity, from, to);
+        }
+        
         Pageable pageable = PageRequest.of(page, size);
         
         Page<Vehicle> vehiclePage = vehicleRepository.findAvailableVehicles(
-                Vehicle.VehicleStatus.AVAILABLE, department, vehicleType, pageable);
+                Vehicle.VehicleStatus.AVAILABLE, department, vehicleType, minCapacity, pageable);
         
         List<VehicleDto> content = vehiclePage.getContent().stream()
                 .map(vehicleMapper::toDto)
@@ -103,6 +152,45 @@ public class VehicleService {
                 .build();
     }
     
+    private PageResponse<VehicleDto> getVehiclesAvailableBetween(
+            int page, int size, String department, Vehicle.VehicleType vehicleType, Integer minCapacity,
+            LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null) {
+            throw new RuntimeException("Both from and to are required for a time window search");
+        }
+        if (!to.isAfter(from)) {
+            throw new RuntimeException("The end of the time window must be after its start");
+        }
+        
+        // Attribute filters run in the database, the time window against the booking interval index
+        List<Long> candidateIds = vehicleRepository.findBookableVehicleIds(department, vehicleType, minCapacity);
+        List<Long> freeIds = bookingIntervalIndex.filterFree(candidateIds, from, to);
+        // Planned maintenance blocks whole days
+        Set<Long> inMaintenance = new HashSet<>(maintenanceTaskRepository.findVehicleIdsPlannedBetween(
+                from.toLocalDate(), to.minusNanos(1).toLocalDate()));
+        if (!inMaintenance.isEmpty()) {
+            freeIds = freeIds.stream().filter(id -> !inMaintenance.contains(id)).toList();
+        }
+        
+        int fromIndex = (int) Math.min((long) page * size, freeIds.size());
+        int toIndex = (int) Math.min((long) fromIndex + size, freeIds.size());
+        List<VehicleDto> content = vehicleRepository.findAllById(freeIds.subList(fromIndex, toIndex)).stream()
+                .sorted(Comparator.comparing(Vehicle::getId))
+                .map(vehicleMapper::toDto)
+                .toList();
+        
+        int totalPages = (int) Math.ceil((double) freeIds.size() / size);
+        return PageResponse.<VehicleDto>builder()
+                .content(content)
+                .page(page)
+                .size(size)
+                .totalElements(freeIds.size())
+                .totalPages(totalPages)
+                .first(page == 0)
+                .last((long) page + 1 >= totalPages)
+                .build();
+    }
+    
     @Transactional
     public VehicleDto updateVehicle(Long id, VehicleCreateRequest request) {
         Vehicle vehicle = vehicleRepository.findById(id)
@@ -126,6 +214,7 @@ public class VehicleService {
         vehicle.setCostCenter(request.getCostCenter());
         vehicle.setLastServiceDate(request.getLastServiceDate());
         vehicle.setNextServiceDue(request.getNextServiceDue());
+        vehicle.setNextServiceMileage(request.getNextServiceMileage());
         vehicle.setInsuranceExpiryDate(request.getInsuranceExpiryDate());
         vehicle.setRegistrationExpiryDate(request.getRegistrationExpiryDate());
         
@@ -147,6 +236,7 @@ public class VehicleService {
                 .orElseThrow(() -> new RuntimeException("Vehicle not found"));
         vehicle.setStatus(status);
         vehicle = vehicleRepository.save(vehicle);
+        applicationEventPublisher.publishEvent(ChangeEvents.vehicle(vehicle));
         return vehicleMapper.toDto(vehicle);
     }
 }
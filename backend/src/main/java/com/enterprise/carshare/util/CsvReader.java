@@ -0,0 +1,87 @@
+package com.enterprise.carshare.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 CSV one record at a time, so an upload is never held in memory as a whole.
+ * Quoted fields may contain commas, doubled quotes and line breaks.
+ */
+public class CsvReader {
+    
+    private static final int MAX_FIELD_LENGTH = 10_000;
+    
+    private final Reader reader;
+    private long line = 1;
+    private long recordLine = 0;
+    
+    public CsvReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? reader : new BufferedReader(reader);
+    }
+    
+    /**
+     * Returns the fields of the next record, or {@code null} at the end of the input. A blank line
+     * comes back as a single empty field.
+     */
+    public List<String> readRecord() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (c == -1) {
+                if (quoted) {
+                    throw new RuntimeException("Unterminated quoted field in CSV record on line " + recordLine);
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            
+            char ch = (char) c;
+            if (quoted) {
+                if (ch == '"') {
+                    c = reader.read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                } else if (ch == '\n') {
+                    line++;
+                }
+                append(field, ch);
+            } else if (ch == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\n') {
+                line++;
+                fields.add(field.toString());
+                return fields;
+            } else if (ch != '\r') {
+                append(field, ch);
+            }
+            c = reader.read();
+        }
+    }
+    
+    // Line on which the record last returned by readRecord started
+    public long getRecordLine() {
+        return recordLine;
+    }
+    
+    private void append(StringBuilder field, char ch) {
+        if (field.length() >= MAX_FIELD_LENGTH) {
+            throw new RuntimeException("CSV field on line " + recordLine + " exceeds " + MAX_FIELD_LENGTH + " characters");
+        }
+        field.append(ch);
+    }
+}
@@ -0,0 +1,49 @@
+package com.enterprise.carshare.util;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+
+/**
+ * Entity tags for conditional GETs, derived from the versions of the rows a response is built from
+ * rather than from the serialized body. Tags are weak: the same representation is served both plain
+ * and gzip-encoded, which a strong tag would have to tell apart.
+ */
+public final class ETags {
+    
+    // Clients may keep the response but must revalidate it, and shared caches must not keep it at all
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    
+    private ETags() {
+    }
+    
+    public static String of(Object... parts) {
+        StringJoiner joiner = new StringJoiner(":");
+        for (Object part : parts) {
+            joiner.add(String.valueOf(part));
+        }
+        return "W/\"" + DigestUtils.md5DigestAsHex(joiner.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+    
+    /**
+     * Answers 304 without building the body when the request's If-None-Match matches, otherwise the body
+     * with its tag. A {@code null} tag means the resource was not found, which the body supplier reports.
+     * The tag must be read before the body, so a change in between only ever costs a refetch.
+     */
+    public static <T> ResponseEntity<T> conditional(WebRequest request, String etag, Supplier<T> body) {
+        if (etag == null) {
+            return ResponseEntity.ok(body.get());
+        }
+        // Also sets the ETag header on the response, for both outcomes
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(body.get());
+    }
+}
@@ -1,8 +1,11 @@
 package com.enterprise.carshare.util;
 
+import com.enterprise.carshare.security.JwtPrincipal;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -20,8 +23,17 @@ public class JwtUtil {
     @Value("${app.jwt.expiration}")
     private Long expiration;
     
+    private SecretKey signingKey;
+    private JwtParser parser;
+    
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(signingKey).build();
+    }
+    
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        return signingKey;
     }
     
     public String generateToken(String email, Long userId, String role) {
@@ -35,6 +47,17 @@ public class JwtUtil {
                 .compact();
     }
     
+    // Verifies the signature and expiry once and returns every claim the application uses
+    public JwtPrincipal parseToken(String token) {
+        Claims claims = extractAllClaims(token);
+        return new JwtPrincipal(
+                claims.get("userId", Long.class),
+                claims.getSubject(),
+                claims.get("role", String.class),
+                claims.getExpiration().toInstant()
+        );
+    }
+    
     public String extractEmail(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -57,11 +80,7 @@ public class JwtUtil {
     }
     
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
     
     private Boolean isTokenExpired(String token) {
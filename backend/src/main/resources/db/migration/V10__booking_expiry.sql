@@ -0,0 +1,4 @@
+-- Set by the booking sweeper when a checked-out booking passes its end time without a checkin.
+-- EXPIRED bookings (pending past their start, or approved but never collected) fall outside
+-- excl_bookings_vehicle_period like the other closed statuses.
+ALTER TABLE bookings ADD COLUMN overdue_at TIMESTAMP;
@@ -0,0 +1,8 @@
+-- Approved bookings the sweeper has not dealt with yet, in end order. Flagged and closed bookings
+-- leave the index, so each sweep reads only the rows it may act on.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_approved_end
+    ON bookings(end_date_time) WHERE status = 'APPROVED' AND overdue_at IS NULL;
+
+-- Stale pending bookings are found through idx_bookings_status_start_id (status, start_date_time),
+-- which also serves every lookup the single-column status index was used for
+DROP INDEX CONCURRENTLY IF EXISTS idx_bookings_status;
@@ -0,0 +1,44 @@
+-- Enforce non-overlapping active bookings per vehicle in the database
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings
+    ADD COLUMN period TSRANGE GENERATED ALWAYS AS (tsrange(start_date_time, end_date_time, '[)')) STORED;
+
+-- The application used to check for overlaps before inserting, which concurrent requests got past,
+-- so existing data may violate the constraint. Approved bookings win over pending ones, then the
+-- earliest made; each overlapping booking that loses is cancelled and logged as a warning.
+DO $$
+DECLARE
+    candidate RECORD;
+BEGIN
+    FOR candidate IN
+        SELECT b.id, b.vehicle_id, b.start_date_time, b.end_date_time, b.created_at,
+               CASE b.status WHEN 'APPROVED' THEN 0 ELSE 1 END AS rank
+        FROM bookings b
+        WHERE b.status IN ('PENDING', 'APPROVED')
+          AND EXISTS (
+              SELECT 1 FROM bookings o
+              WHERE o.vehicle_id = b.vehicle_id AND o.id <> b.id AND o.status IN ('PENDING', 'APPROVED')
+                AND o.start_date_time < b.end_date_time AND b.start_date_time < o.end_date_time)
+        ORDER BY rank, b.created_at, b.id
+    LOOP
+        -- Only bookings ahead of this one in the order are compared, and those still active were kept
+        IF EXISTS (
+            SELECT 1 FROM bookings o
+            WHERE o.vehicle_id = candidate.vehicle_id AND o.id <> candidate.id
+              AND o.status IN ('PENDING', 'APPROVED')
+              AND o.start_date_time < candidate.end_date_time AND candidate.start_date_time < o.end_date_time
+              AND (CASE o.status WHEN 'APPROVED' THEN 0 ELSE 1 END, o.created_at, o.id)
+                  < (candidate.rank, candidate.created_at, candidate.id))
+        THEN
+            UPDATE bookings SET status = 'CANCELLED', updated_at = CURRENT_TIMESTAMP WHERE id = candidate.id;
+            RAISE WARNING 'Cancelled booking % of vehicle % (% to %), it overlaps an earlier active booking',
+                candidate.id, candidate.vehicle_id, candidate.start_date_time, candidate.end_date_time;
+        END IF;
+    END LOOP;
+END $$;
+
+ALTER TABLE bookings
+    ADD CONSTRAINT excl_bookings_vehicle_period
+    EXCLUDE USING gist (vehicle_id WITH =, period WITH &&)
+    WHERE (status IN ('PENDING', 'APPROVED'));
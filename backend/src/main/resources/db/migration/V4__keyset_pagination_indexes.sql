@@ -0,0 +1,12 @@
+-- Composite (sort key, id) indexes backing cursor pagination
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_start_id
+    ON bookings(start_date_time DESC, id DESC);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_user_start_id
+    ON bookings(user_id, start_date_time DESC, id DESC);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_status_start_id
+    ON bookings(status, start_date_time DESC, id DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_maintenance_created_id
+    ON maintenance_tasks(created_at DESC, id DESC);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_maintenance_vehicle_created_id
+    ON maintenance_tasks(vehicle_id, created_at DESC, id DESC);
@@ -0,0 +1,14 @@
+-- Per-day totals of completed bookings, keyed by booking start date, maintained on checkin
+CREATE TABLE daily_usage_rollup (
+    usage_date DATE PRIMARY KEY,
+    completed_bookings BIGINT NOT NULL DEFAULT 0,
+    total_distance BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO daily_usage_rollup (usage_date, completed_bookings, total_distance)
+SELECT CAST(b.start_date_time AS DATE), COUNT(*), COALESCE(SUM(u.distance_travelled), 0)
+FROM bookings b
+LEFT JOIN booking_usage u ON u.booking_id = b.id
+WHERE b.status = 'COMPLETED'
+GROUP BY CAST(b.start_date_time AS DATE);
@@ -0,0 +1,21 @@
+-- Booking lifecycle events written in the same transaction as the state change and delivered
+-- at-least-once by the outbox dispatcher. A claimed row is leased until locked_until; rows that
+-- exhaust their attempts stay behind as DEAD for inspection.
+CREATE TABLE outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    event_type VARCHAR(100) NOT NULL,
+    aggregate_type VARCHAR(50) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    payload JSONB NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING', -- PENDING, DONE, DEAD
+    attempts INT NOT NULL DEFAULT 0,
+    available_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    locked_until TIMESTAMP,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    processed_at TIMESTAMP
+);
+
+-- Only undelivered rows are polled, so keep the index to those
+CREATE INDEX idx_outbox_events_pending ON outbox_events (available_at, id) WHERE status = 'PENDING';
+CREATE INDEX idx_outbox_events_processed ON outbox_events (processed_at) WHERE status = 'DONE';
@@ -0,0 +1,4 @@
+-- Vehicle ids are allocated by Hibernate's pooled optimizer in blocks of 50 (the sequence value is
+-- the top of the block) so imports can batch their inserts. Plain nextval() callers still work;
+-- they simply skip ahead.
+ALTER SEQUENCE vehicles_id_seq INCREMENT BY 50;
@@ -0,0 +1,16 @@
+-- Mileage at which the next service is due, alongside the existing date thresholds
+ALTER TABLE vehicles ADD COLUMN next_service_mileage BIGINT;
+
+-- Why a task was raised by the maintenance scheduler; NULL for tasks created by hand
+ALTER TABLE maintenance_tasks ADD COLUMN reason VARCHAR(20); -- SERVICE, INSURANCE, REGISTRATION
+
+-- Progress of incremental background jobs, one row per job. scanned_until is the last date whose
+-- thresholds have been acted on; modified_since is when the job last looked at changed rows.
+CREATE TABLE job_watermarks (
+    job_name VARCHAR(100) PRIMARY KEY,
+    scanned_until DATE,
+    modified_since TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO job_watermarks (job_name) VALUES ('maintenance-scheduler');
@@ -0,0 +1,17 @@
+-- Range scans for the maintenance scheduler: thresholds entering the look-ahead window, and vehicles
+-- changed since its last run
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_vehicles_next_service_due
+    ON vehicles(next_service_due);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_vehicles_insurance_expiry
+    ON vehicles(insurance_expiry_date);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_vehicles_registration_expiry
+    ON vehicles(registration_expiry_date);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_vehicles_updated_at
+    ON vehicles(updated_at);
+
+-- Open work only: the scheduler's duplicate check and the booking check against planned dates
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_maintenance_open_vehicle_planned
+    ON maintenance_tasks(vehicle_id, planned_date) WHERE status IN ('OPEN', 'IN_PROGRESS');
+-- Tasks closed since the scheduler's last run, whose vehicles may need a new one
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_maintenance_done_updated
+    ON maintenance_tasks(updated_at) WHERE status = 'DONE';
@@ -0,0 +1,119 @@
+package com.enterprise.carshare.service;
+
+import com.enterprise.carshare.domain.Booking;
+import com.enterprise.carshare.domain.User;
+import com.enterprise.carshare.domain.Vehicle;
+import com.enterprise.carshare.dto.BookingCreateRequest;
+import com.enterprise.carshare.dto.BookingDto;
+import com.enterprise.carshare.mapper.BookingDetailsMapper;
+import com.enterprise.carshare.repository.BookingRepository;
+import com.enterprise.carshare.repository.BookingUsageRepository;
+import com.enterprise.carshare.repository.MaintenanceTaskRepository;
+import com.enterprise.carshare.repository.UserRepository;
+import com.enterprise.carshare.repository.VehicleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class BookingServiceTest {
+    
+    private static final Long VEHICLE_ID = 7L;
+    private static final Long USER_ID = 3L;
+    
+    @Mock private BookingRepository bookingRepository;
+    @Mock private VehicleRepository vehicleRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private BookingUsageRepository bookingUsageRepository;
+    @Mock private MaintenanceTaskRepository maintenanceTaskRepository;
+    @Mock private BookingDetailsMapper bookingDetailsMapper;
+    @Mock private BookingIntervalIndex bookingIntervalIndex;
+    @Mock private VehicleLocks vehicleLocks;
+    @Mock private TransactionTemplate transactionTemplate;
+    @Mock private OutboxService outboxService;
+    @Mock private ApplicationEventPublisher applicationEventPublisher;
+    
+    @InjectMocks
+    private BookingService bookingService;
+    
+    @BeforeEach
+    void setUp() {
+        when(vehicleLocks.withLock(eq(VEHICLE_ID), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(userRepository.findById(USER_ID))
+                .thenReturn(Optional.of(User.builder().id(USER_ID).role(User.Role.ROLE_APPROVER).build()));
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenAnswer(invocation -> {
+            Booking booking = invocation.getArgument(0);
+            booking.setId(42L);
+            return booking;
+        });
+        when(bookingDetailsMapper.toDto(any(Booking.class)))
+                .thenAnswer(invocation -> BookingDto.builder().id(invocation.<Booking>getArgument(0).getId()).build());
+    }
+    
+    @Test
+    void booksVehicleThatTheWindowSearchReturnsWhileInUse() {
+        // The window search returns IN_USE vehicles that are free in the window; admission must agree
+        Vehicle vehicle = vehicle(Vehicle.VehicleStatus.IN_USE);
+        when(vehicleRepository.findById(VEHICLE_ID)).thenReturn(Optional.of(vehicle));
+        
+        assertThat(vehicle.getStatus().isBookable()).isTrue();
+        
+        BookingDto booking = bookingService.createBooking(USER_ID, request());
+        
+        assertThat(booking.getId()).isEqualTo(42L);
+        verify(bookingIntervalIndex).addAfterCommit(eq(VEHICLE_ID), anyLong(), any(), any());
+    }
+    
+    @Test
+    void rejectsVehicleInMaintenance() {
+        when(vehicleRepository.findById(VEHICLE_ID))
+                .thenReturn(Optional.of(vehicle(Vehicle.VehicleStatus.MAINTENANCE)));
+        
+        assertThatThrownBy(() -> bookingService.createBooking(USER_ID, request()))
+                .hasMessage("Vehicle is not available for booking");
+        verify(bookingRepository, never()).saveAndFlush(any());
+    }
+    
+    private static Vehicle vehicle(Vehicle.VehicleStatus status) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setId(VEHICLE_ID);
+        vehicle.setStatus(status);
+        return vehicle;
+    }
+    
+    private static BookingCreateRequest request() {
+        LocalDateTime start = LocalDateTime.now().plusDays(3).withNano(0);
+        BookingCreateRequest request = new BookingCreateRequest();
+        request.setVehicleId(VEHICLE_ID);
+        request.setStartDateTime(start);
+        request.setEndDateTime(start.plusHours(4));
+        request.setPickupLocation("HQ");
+        request.setReturnLocation("HQ");
+        return request;
+    }
+}
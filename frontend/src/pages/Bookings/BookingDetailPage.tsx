@@ -169,6 +169,11 @@ const BookingDetailPage = () => {
                 >
                   {booking.status}
                 </span>
+                {booking.overdueAt && booking.status === BookingStatus.APPROVED && (
+                  <span className="inline-block ml-2 px-3 py-1 rounded-full text-sm font-medium bg-red-100 text-red-800">
+                    OVERDUE
+                  </span>
+                )}
               </dd>
             </div>
             <div>
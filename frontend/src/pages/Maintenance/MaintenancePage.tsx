@@ -251,7 +251,7 @@ const MaintenancePage = () => {
                     )}
                   </div>
                   <p className="text-sm text-gray-500 mt-1">
-                    Created by: {task.createdByEmail}
+                    Created by: {task.createdByEmail ?? 'Maintenance scheduler'}
                   </p>
                 </div>
                 <div className="ml-4">
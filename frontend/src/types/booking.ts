@@ -6,6 +6,14 @@ export enum BookingStatus {
   REJECTED = 'REJECTED',
   CANCELLED = 'CANCELLED',
   COMPLETED = 'COMPLETED',
+  EXPIRED = 'EXPIRED',
+}
+
+export interface PhotoThumbnails {
+  original: string;
+  small: string;
+  medium: string;
+  large: string;
 }
 
 export interface BookingUsage {
@@ -20,6 +28,8 @@ export interface BookingUsage {
   damageDescription?: string;
   preTripPhotos?: string[];
   postTripPhotos?: string[];
+  preTripThumbnails?: PhotoThumbnails[];
+  postTripThumbnails?: PhotoThumbnails[];
   checkoutComments?: string;
   checkinComments?: string;
   checkedOutAt?: string;
@@ -42,6 +52,7 @@ export interface Booking {
   purpose?: string;
   status: BookingStatus;
   approvalRequired: boolean;
+  overdueAt?: string;
   createdAt: string;
   updatedAt: string;
   usage?: BookingUsage;
@@ -69,6 +80,8 @@ export interface CheckinRequest {
   damageReported?: boolean;
   damageDescription?: string;
   postTripPhotos?: string[];
+  preTripThumbnails?: PhotoThumbnails[];
+  postTripThumbnails?: PhotoThumbnails[];
   checkinComments?: string;
 }
 
@@ -6,12 +6,18 @@ export enum MaintenanceStatus {
   DONE = 'DONE',
 }
 
+export enum MaintenanceReason {
+  SERVICE = 'SERVICE',
+  INSURANCE = 'INSURANCE',
+  REGISTRATION = 'REGISTRATION',
+}
+
 export interface MaintenanceTask {
   id: number;
   vehicleId: number;
   vehicle?: Vehicle;
-  createdById: number;
-  createdByEmail: string;
+  createdById?: number; // unset for tasks raised by the scheduler
+  createdByEmail?: string;
   title: string;
   description?: string;
   status: MaintenanceStatus;
@@ -19,6 +25,7 @@ export interface MaintenanceTask {
   completedDate?: string;
   cost?: number;
   workshopName?: string;
+  reason?: MaintenanceReason;
   createdAt: string;
   updatedAt: string;
 }
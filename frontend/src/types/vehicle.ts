@@ -35,6 +35,7 @@ export interface Vehicle {
   currentMileage: number;
   lastServiceDate?: string;
   nextServiceDue?: string;
+  nextServiceMileage?: number;
   insuranceExpiryDate?: string;
   registrationExpiryDate?: string;
 }
@@ -53,6 +54,7 @@ export interface VehicleCreateRequest {
   costCenter?: string;
   lastServiceDate?: string;
   nextServiceDue?: string;
+  nextServiceMileage?: number;
   insuranceExpiryDate?: string;
   registrationExpiryDate?: string;
 }